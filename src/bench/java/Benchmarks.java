@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public class Benchmarks {
+    static final int WARMUP_ITERATIONS = 5;
+    static final int MEASURE_ITERATIONS = 5;
+    static final long ITERATION_NANOS = 200_000_000L;
+
+    static volatile long sink;
+
+    private final Map<String, Supplier<LongSupplier>> benchmarks = new LinkedHashMap<>();
+
+    public void add(String name, Supplier<LongSupplier> setup) {
+        benchmarks.put(name, setup);
+    }
+
+    public Map<String, Double> run(String filter) {
+        Map<String, Double> results = new LinkedHashMap<>();
+        benchmarks.forEach((name, setup) -> {
+            if (filter != null && !name.contains(filter)) return;
+            double nanosPerOp = measure(setup.get());
+            results.put(name, nanosPerOp);
+            System.out.printf(Locale.ROOT, "%-45s %12.1f ns/op%n", name, nanosPerOp);
+        });
+        return results;
+    }
+
+    private static double measure(LongSupplier op) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(op);
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            best = Math.min(best, iteration(op));
+        }
+        return best;
+    }
+
+    private static double iteration(LongSupplier op) {
+        long result = 0;
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 1000; i++) {
+                result ^= op.getAsLong();
+            }
+            ops += 1000;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        sink = result;
+        return (double) elapsed / ops;
+    }
+
+    static Map<String, Double> load(Path path) throws IOException {
+        Map<String, Double> results = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(path)) {
+            int comma = line.lastIndexOf(',');
+            if (comma < 0) continue;
+            results.put(line.substring(0, comma), Double.parseDouble(line.substring(comma + 1)));
+        }
+        return results;
+    }
+
+    static void save(Path path, Map<String, Double> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        results.forEach((name, value) -> lines.add(name + "," + value));
+        Files.write(path, lines);
+    }
+
+    static List<String> regressions(Map<String, Double> baseline, Map<String, Double> results, double tolerance) {
+        List<String> slower = new ArrayList<>();
+        results.forEach((name, value) -> {
+            Double before = baseline.get(name);
+            if (before != null && value > before * (1 + tolerance)) {
+                slower.add(String.format(Locale.ROOT, "%s: %.1f -> %.1f ns/op", name, before, value));
+            }
+        });
+        return slower;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String filter = null;
+        Path baseline = null;
+        Path save = null;
+        double tolerance = 0.2;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter" -> filter = args[++i];
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                case "--save" -> save = Path.of(args[++i]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Benchmarks benchmarks = new Benchmarks();
+        ModelBenchmarks.register(benchmarks);
+        ViewBenchmarks.register(benchmarks);
+        Map<String, Double> results = benchmarks.run(filter);
+
+        if (save != null) save(save, results);
+        if (baseline != null) {
+            List<String> slower = regressions(load(baseline), results, tolerance);
+            if (!slower.isEmpty()) {
+                slower.forEach(line -> System.out.println("REGRESSION " + line));
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.Random;
+
+public class ModelBenchmarks {
+    static final double[] FILL_LEVELS = {0.0, 0.25, 0.5, 0.75};
+    static final long PIECE_SEED = 2024;
+
+    /** Seeded so every run measures the same piece sequence and baselines stay comparable. */
+    static TetrisModel newModel() {
+        return new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(PIECE_SEED));
+    }
+
+    static TetrisModel filledModel(double fill, long seed) {
+        TetrisModel model = newModel();
+        Random random = new Random(seed);
+        int height = model.size().y();
+        int width = model.size().x();
+        int filledRows = (int) Math.round(height * fill);
+        for (int row = height - filledRows; row < height; row++) {
+            int gap = random.nextInt(width);
+            for (int col = 0; col < width; col++) {
+                if (col != gap && random.nextInt(4) != 0) model.setCell(row, col, 1 + random.nextInt(TetrisModel.DEFAULT_COLOR_NUMBER));
+            }
+        }
+        return model;
+    }
+
+    static void register(Benchmarks benchmarks) {
+        benchmarks.add("model.slideDown", () -> {
+            TetrisModel model = newModel();
+            model.setFigure(FigureFactory.figure(3, 0));
+            Pair start = model.position;
+            return () -> {
+                model.position = start;
+                model.slideDown();
+                return model.position.y();
+            };
+        });
+
+        benchmarks.add("model.drop", () -> {
+            TetrisModel model = newModel();
+            model.setFigure(FigureFactory.figure(3, 0));
+            Pair start = model.position;
+            return () -> {
+                model.position = start;
+                model.drop();
+                return model.position.y();
+            };
+        });
+
+        benchmarks.add("model.rotate", () -> {
+            TetrisModel model = newModel();
+            model.setFigure(FigureFactory.figure(6, 0));
+            model.position = new Pair(3, 8);
+            return () -> {
+                model.rotate();
+                return model.figure.rotation;
+            };
+        });
+
+        benchmarks.add("model.tryRotation", () -> {
+            TetrisModel model = newModel();
+            model.setFigure(FigureFactory.figure(6, 0));
+            model.position = new Pair(3, 8);
+            return () -> {
+                model.tryRotation();
+                return model.figure.rotation;
+            };
+        });
+
+        benchmarks.add("model.initFigure", () -> {
+            TetrisModel model = newModel();
+            return () -> {
+                model.initFigure();
+                return model.figure.type;
+            };
+        });
+
+        benchmarks.add("model.initFigure.clear2Rows", () -> {
+            TetrisModel model = filledModel(0.5, 42);
+            int width = model.size().x();
+            int bottom = model.size().y() - 1;
+            return () -> {
+                for (int col = 0; col < width; col++) {
+                    model.setCell(bottom, col, 1);
+                    model.setCell(bottom - 1, col, 2);
+                }
+                model.initFigure();
+                return model.clearedCount;
+            };
+        });
+
+        for (double fill : FILL_LEVELS) {
+            benchmarks.add("model.isNewFigurePositionValid.fill" + Math.round(fill * 100), () -> {
+                TetrisModel model = filledModel(fill, 7);
+                model.setFigure(FigureFactory.figure(6, 0));
+                int width = model.size().x();
+                int height = model.size().y();
+                Pair[] positions = new Pair[64];
+                Random random = new Random(11);
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = new Pair(random.nextInt(width + 2) - 2, random.nextInt(height));
+                }
+                int[] next = new int[1];
+                return () -> {
+                    Pair position = positions[next[0]++ & (positions.length - 1)];
+                    return model.isNewFigurePositionValid(position) ? 1 : 0;
+                };
+            });
+        }
+    }
+}
@@ -0,0 +1,22 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class ViewBenchmarks {
+    static void register(Benchmarks benchmarks) {
+        for (double fill : ModelBenchmarks.FILL_LEVELS) {
+            benchmarks.add("view.draw.fill" + Math.round(fill * 100), () -> {
+                TetrisModel model = ModelBenchmarks.filledModel(fill, 3);
+                JPanel panel = new JPanel();
+                panel.setSize(400, 700);
+                View view = new View(panel, model);
+                BufferedImage image = new BufferedImage(400, 700, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D graphics = image.createGraphics();
+                return () -> {
+                    view.draw(model, graphics);
+                    return image.getRGB(100, 600);
+                };
+            });
+        }
+    }
+}
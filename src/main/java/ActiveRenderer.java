@@ -0,0 +1,118 @@
+import java.awt.*;
+import java.awt.Graphics;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+public class ActiveRenderer implements Runnable, AutoCloseable {
+    public static final int DEFAULT_FPS = 60;
+
+    private final Canvas canvas;
+    private final View view;
+    private final Session session;
+    private final long frameNanos;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public ActiveRenderer(Canvas canvas, View view, Session session, int fps) {
+        if (fps < 1) {
+            throw new IllegalArgumentException("Frame rate must be positive: " + fps);
+        }
+        this.canvas = canvas;
+        this.view = view;
+        this.session = session;
+        this.frameNanos = 1_000_000_000L / fps;
+    }
+
+    public static Canvas createCanvas() {
+        Canvas canvas = new Canvas() {
+            @Override
+            public void paint(Graphics g) {
+            }
+
+            @Override
+            public void update(Graphics g) {
+            }
+        };
+        canvas.setIgnoreRepaint(true);
+        return canvas;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        canvas.createBufferStrategy(2);
+        running = true;
+        thread = new Thread(this, "render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * A failed frame is dropped and the loop keeps going, so a transient error such as a lost buffer
+     * strategy does not stop rendering. The first failure of each run is reported to the thread's
+     * uncaught exception handler.
+     */
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        boolean failing = false;
+        while (running) {
+            long start = System.nanoTime();
+            try {
+                render();
+                failing = false;
+            } catch (RuntimeException e) {
+                if (!failing) {
+                    Thread current = Thread.currentThread();
+                    current.getUncaughtExceptionHandler().uncaughtException(current, e);
+                }
+                failing = true;
+            }
+            long end = System.nanoTime();
+            if (!failing) session.metrics().rendered(start, end);
+
+            next += frameNanos;
+            if (next > end) {
+                LockSupport.parkNanos(this, next - end);
+            } else {
+                next = end;
+            }
+        }
+    }
+
+    private void render() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        if (strategy == null) {
+            throw new IllegalStateException("Canvas has no buffer strategy; is it still displayable?");
+        }
+        GameState state = session.state();
+        do {
+            do {
+                Graphics2D graphics = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    graphics.setColor(canvas.getBackground());
+                    graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                    view.draw(state, graphics);
+                } finally {
+                    graphics.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+            Toolkit.getDefaultToolkit().sync();
+        } while (strategy.contentsLost());
+    }
+
+    @Override
+    public void close() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = thread;
+        }
+        if (current == null) return;
+        try {
+            current.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
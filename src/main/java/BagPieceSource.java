@@ -0,0 +1,44 @@
+public class BagPieceSource extends PieceSource {
+    final int[] bag = new int[FigureFactory.FIGURE_TYPES];
+    int remaining = 0;
+
+    public BagPieceSource(long seed, int lookahead) {
+        super(seed, lookahead);
+    }
+
+    @Override
+    protected int generate() {
+        if (remaining == 0) refill();
+        return bag[--remaining];
+    }
+
+    @Override
+    long packExtra() {
+        long packed = remaining;
+        for (int i = 0; i < bag.length; i++) {
+            packed |= (long) bag[i] << (8 + i * 3);
+        }
+        return packed;
+    }
+
+    @Override
+    void unpackExtra(long extra) {
+        remaining = (int) (extra & 0xFF);
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = (int) (extra >>> (8 + i * 3)) & 7;
+        }
+    }
+
+    private void refill() {
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = i;
+        }
+        for (int i = bag.length - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            int tmp = bag[i];
+            bag[i] = bag[j];
+            bag[j] = tmp;
+        }
+        remaining = bag.length;
+    }
+}
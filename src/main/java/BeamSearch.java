@@ -0,0 +1,173 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class BeamSearch {
+    public static final int DEFAULT_DEPTH = 3;
+    public static final int DEFAULT_BEAM_WIDTH = 16;
+
+    private static final Comparator<Node> BY_SCORE = Comparator.comparingDouble((Node node) -> node.score).reversed();
+
+    private final Heuristic heuristic;
+    private final ForkJoinPool pool;
+    private final int depth;
+    private final int beamWidth;
+    private final long budgetNanos;
+
+    public record Result(Placement placement, int depth) {
+        public List<Move> moves() {
+            return placement == null ? List.of() : placement.moves();
+        }
+    }
+
+    public BeamSearch(long budgetNanos) {
+        this(Heuristic.DEFAULT, ForkJoinPool.commonPool(), DEFAULT_DEPTH, DEFAULT_BEAM_WIDTH, budgetNanos);
+    }
+
+    public BeamSearch(Heuristic heuristic, ForkJoinPool pool, int depth, int beamWidth, long budgetNanos) {
+        if (depth < 1 || beamWidth < 1) {
+            throw new IllegalArgumentException("Depth and beam width must be positive: " + depth + ", " + beamWidth);
+        }
+        this.heuristic = heuristic;
+        this.pool = pool;
+        this.depth = depth;
+        this.beamWidth = beamWidth;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Searches from the model's current piece. Reads the model, so call it on the thread that drives it,
+     * or use {@link #search(GameState)}; the search itself only touches copies and may run on the pool.
+     */
+    public Result search(TetrisModel model) {
+        if (model.finished) return new Result(null, 0);
+        int levels = Math.min(depth, model.figureFactory.source().lookahead() + 1);
+        Figure[] figures = new Figure[levels];
+        figures[0] = model.figure;
+        for (int i = 1; i < levels; i++) figures[i] = model.nextFigure(i - 1);
+        return search(model.board.copy(), figures, model.position.x(), model.position.y());
+    }
+
+    /** Searches from a published state, looking as far ahead as its preview allows. */
+    public Result search(GameState state) {
+        if (state.finished()) return new Result(null, 0);
+        int levels = Math.min(depth, state.previewCount() + 1);
+        Figure[] figures = new Figure[levels];
+        figures[0] = state.figure();
+        for (int i = 1; i < levels; i++) figures[i] = state.preview(i - 1);
+        return search(state.board(), figures, state.position().x(), state.position().y());
+    }
+
+    /** Searches placing {@code figures} in order on {@code board}, which the search takes ownership of. */
+    Result search(Board board, Figure[] figures, int x, int y) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int levels = Math.min(depth, figures.length);
+        int spawnX = board.width / 2 - 2;
+
+        Node root = new Node(board, null, 0, 0);
+        List<Node> beam = pool.invoke(new Expand(root, figures[0], x, y, Long.MAX_VALUE));
+        if (beam.isEmpty()) return new Result(null, 0);
+        beam = top(beam);
+
+        int completed = 1;
+        for (int level = 1; level < levels && System.nanoTime() < deadline; level++) {
+            List<Expand> tasks = new ArrayList<>(beam.size());
+            for (Node node : beam) tasks.add(new Expand(node, figures[level], spawnX, 0, deadline));
+            List<Node> next = pool.invoke(new Level(tasks));
+            if (next == null || next.isEmpty()) break;
+            beam = top(next);
+            completed++;
+        }
+        return new Result(beam.get(0).first.scored(beam.get(0).score), completed);
+    }
+
+    private List<Node> top(List<Node> nodes) {
+        nodes.sort(BY_SCORE);
+        return nodes.size() > beamWidth ? new ArrayList<>(nodes.subList(0, beamWidth)) : nodes;
+    }
+
+    private static final class Node {
+        final Board board;
+        final Placement first;
+        final int lines;
+        final double score;
+
+        Node(Board board, Placement first, int lines, double score) {
+            this.board = board;
+            this.first = first;
+            this.lines = lines;
+            this.score = score;
+        }
+    }
+
+    private static final class Level extends RecursiveTask<List<Node>> {
+        private final List<Expand> tasks;
+
+        Level(List<Expand> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected List<Node> compute() {
+            invokeAll(tasks);
+            List<Node> merged = new ArrayList<>();
+            for (Expand task : tasks) {
+                List<Node> children = task.join();
+                if (children == null) return null;
+                merged.addAll(children);
+            }
+            return merged;
+        }
+    }
+
+    private final class Expand extends RecursiveTask<List<Node>> {
+        private final Node parent;
+        private final Figure figure;
+        private final int x;
+        private final int y;
+        private final long deadline;
+
+        Expand(Node parent, Figure figure, int x, int y, long deadline) {
+            this.parent = parent;
+            this.figure = figure;
+            this.x = x;
+            this.y = y;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected List<Node> compute() {
+            if (System.nanoTime() >= deadline) return null;
+            Board board = parent.board;
+            List<Placement> candidates = PlacementSearch.candidates(board, figure, x, y);
+            board.features();
+
+            Board scratch = new Board(board.width, board.height);
+            double[] scores = new double[candidates.size()];
+            Integer[] order = new Integer[candidates.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scratch.copyFrom(board);
+                Placement placement = candidates.get(i);
+                scratch.paste(placement.figure(), placement.x(), placement.y());
+                scores[i] = heuristic.score(scratch, parent.lines + scratch.clearFullRows());
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+            int kept = Math.min(beamWidth, order.length);
+            List<Node> children = new ArrayList<>(kept);
+            for (int i = 0; i < kept; i++) {
+                Placement placement = candidates.get(order[i]);
+                Board child = board.copy();
+                child.paste(placement.figure(), placement.x(), placement.y());
+                int lines = parent.lines + child.clearFullRows();
+                child.features();
+                children.add(new Node(child, parent.first == null ? placement : parent.first, lines, scores[order[i]]));
+            }
+            return children;
+        }
+    }
+}
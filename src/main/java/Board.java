@@ -0,0 +1,237 @@
+import java.util.Arrays;
+
+public class Board {
+    public static final int MAX_WIDTH = 32;
+
+    final int width;
+    final int height;
+    final long fullRow;
+    int[] rows;
+    final int[] tops;
+    private boolean topsDirty = false;
+    final BoardFeatures features;
+    private int[] pasteMasks = new int[0];
+
+    public Board(int width, int height) {
+        if (width < 1 || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Board width must be between 1 and " + MAX_WIDTH + ": " + width);
+        }
+        this.width = width;
+        this.height = height;
+        this.fullRow = (1L << width) - 1;
+        this.rows = new int[height];
+        this.tops = new int[width];
+        Arrays.fill(tops, height);
+        this.features = new BoardFeatures(this);
+    }
+
+    public static int[] rowMasks(int[][] cells) {
+        int[] masks = new int[cells.length];
+        for (int row = 0; row < cells.length; row++) {
+            for (int col = 0; col < cells[row].length; col++) {
+                if (cells[row][col] != 0) masks[row] |= 1 << col;
+            }
+        }
+        return masks;
+    }
+
+    public boolean isOccupied(int row, int col) {
+        return (rows[row] & (1 << col)) != 0;
+    }
+
+    public void set(int row, int col) {
+        rows[row] |= 1 << col;
+        if (!topsDirty && row < tops[col]) tops[col] = row;
+        features.invalidate();
+    }
+
+    public void clear(int row, int col) {
+        rows[row] &= ~(1 << col);
+        if (row == tops[col]) topsDirty = true;
+        features.invalidate();
+    }
+
+    public int top(int col) {
+        if (topsDirty) recomputeTops();
+        return tops[col];
+    }
+
+    public int columnHeight(int col) {
+        return height - top(col);
+    }
+
+    public int dropRow(Figure figure, int x, int y) {
+        if (topsDirty) recomputeTops();
+        int landing = Integer.MAX_VALUE;
+        for (int col = figure.minCol; col <= figure.maxCol; col++) {
+            int bottom = figure.bottom(col);
+            if (bottom < 0) continue;
+            int top = tops[x + col];
+            if (y + bottom >= top) return stepDown(figure, x, y);
+            landing = Math.min(landing, top - 1 - bottom);
+        }
+        return landing;
+    }
+
+    private int stepDown(Figure figure, int x, int y) {
+        while (fits(figure, x, y + 1)) y++;
+        return y;
+    }
+
+    private void recomputeTops() {
+        Arrays.fill(tops, height);
+        long remaining = fullRow;
+        for (int row = 0; row < height && remaining != 0; row++) {
+            long found = rows[row] & remaining;
+            remaining &= ~found;
+            while (found != 0) {
+                tops[Long.numberOfTrailingZeros(found)] = row;
+                found &= found - 1;
+            }
+        }
+        topsDirty = false;
+    }
+
+    public boolean isRowFull(int row) {
+        return (rows[row] & 0xFFFFFFFFL) == fullRow;
+    }
+
+    public boolean isRowEmpty(int row) {
+        return rows[row] == 0;
+    }
+
+    public void clearRow(int row) {
+        rows[row] = 0;
+        topsDirty = true;
+        features.invalidate();
+    }
+
+    public void setRow(int row, int mask) {
+        rows[row] = mask;
+        topsDirty = true;
+        features.invalidate();
+    }
+
+    public void moveRow(int from, int to) {
+        rows[to] = rows[from];
+        rows[from] = 0;
+        topsDirty = true;
+        features.invalidate();
+    }
+
+    public boolean fits(Figure figure, int x, int y) {
+        for (int r = figure.minRow; r <= figure.maxRow; r++) {
+            if (!fitsRow(figure.rowMask(r), x, y + r)) return false;
+        }
+        return true;
+    }
+
+    public boolean fits(int[] figureRows, int x, int y) {
+        for (int r = 0; r < figureRows.length; r++) {
+            if (!fitsRow(figureRows[r], x, y + r)) return false;
+        }
+        return true;
+    }
+
+    private boolean fitsRow(int mask, int x, int row) {
+        if (mask == 0) return true;
+        if (row < 0 || row >= height) return false;
+        long placed = place(mask, x);
+        if (placed < 0 || (placed & ~fullRow) != 0) return false;
+        return ((int) placed & rows[row]) == 0;
+    }
+
+    public void paste(Figure figure, int x, int y) {
+        int count = figure.rowCount();
+        if (pasteMasks.length != count) pasteMasks = new int[count];
+        for (int r = 0; r < count; r++) pasteMasks[r] = figure.rowMask(r);
+        paste(pasteMasks, x, y);
+    }
+
+    public void paste(int[] figureRows, int x, int y) {
+        boolean tracked = !topsDirty && !features.isDirty();
+        if (tracked) features.startPaste();
+        int columns = 0;
+        int firstRow = Integer.MAX_VALUE;
+        int lastRow = -1;
+        for (int r = 0; r < figureRows.length; r++) {
+            int mask = figureRows[r];
+            if (mask == 0) continue;
+            int row = y + r;
+            int placed = (int) place(mask, x);
+            if (tracked) features.beforePaste(placed, row);
+            rows[row] |= placed;
+            columns |= placed;
+            firstRow = Math.min(firstRow, row);
+            lastRow = row;
+        }
+        if (tracked && columns != 0) {
+            features.finishPaste(columns, firstRow, lastRow);
+        } else {
+            features.invalidate();
+        }
+        if (topsDirty) return;
+        for (int r = 0; r < figureRows.length; r++) {
+            int placed = (int) place(figureRows[r], x);
+            while (placed != 0) {
+                int col = Integer.numberOfTrailingZeros(placed);
+                if (y + r < tops[col]) tops[col] = y + r;
+                placed &= placed - 1;
+            }
+        }
+    }
+
+    public int clearFullRows() {
+        int count = 0;
+        int write = height - 1;
+        for (int read = height - 1; read >= 0; read--) {
+            if (isRowFull(read)) {
+                count++;
+                continue;
+            }
+            if (write != read) rows[write] = rows[read];
+            write--;
+        }
+        if (count == 0) return 0;
+        Arrays.fill(rows, 0, count, 0);
+        topsDirty = true;
+        features.invalidate();
+        return count;
+    }
+
+    public Board copy() {
+        Board copy = new Board(width, height);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    public void copyFrom(Board other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("Board size mismatch: " + other.width + "x" + other.height);
+        }
+        System.arraycopy(other.rows, 0, rows, 0, height);
+        System.arraycopy(other.tops, 0, tops, 0, width);
+        topsDirty = other.topsDirty;
+        features.copyFrom(other.features);
+    }
+
+    public int[] features() {
+        return features.values();
+    }
+
+    public void reset() {
+        rows = new int[height];
+        Arrays.fill(tops, height);
+        topsDirty = false;
+        features.invalidate();
+    }
+
+    private static long place(int mask, int x) {
+        long bits = mask & 0xFFFFFFFFL;
+        if (x >= 0) {
+            return x < MAX_WIDTH ? bits << x : -1;
+        }
+        if (x <= -MAX_WIDTH || (bits & ((1L << -x) - 1)) != 0) return -1;
+        return bits >>> -x;
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.Arrays;
+
+public class BoardFeatures {
+    public static final int AGGREGATE_HEIGHT = 0;
+    public static final int HOLES = 1;
+    public static final int BUMPINESS = 2;
+    public static final int WELLS = 3;
+    public static final int ROW_TRANSITIONS = 4;
+    public static final int HEADER = 5;
+
+    private final Board board;
+    private final int width;
+    private final int height;
+    private final int[] values;
+    private final int[] rowTransitions;
+    private final int[] newTops;
+    private final int[] cellsAbove;
+    private boolean dirty = true;
+
+    BoardFeatures(Board board) {
+        this.board = board;
+        this.width = board.width;
+        this.height = board.height;
+        this.values = new int[HEADER + 3 * width];
+        this.rowTransitions = new int[height];
+        this.newTops = new int[width];
+        this.cellsAbove = new int[width];
+    }
+
+    public static int heightIndex(int col) {
+        return HEADER + col;
+    }
+
+    public int holesIndex(int col) {
+        return HEADER + width + col;
+    }
+
+    public int wellIndex(int col) {
+        return HEADER + 2 * width + col;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int[] values() {
+        if (dirty) recompute();
+        return values;
+    }
+
+    void copyFrom(BoardFeatures other) {
+        dirty = other.dirty;
+        if (dirty) return;
+        System.arraycopy(other.values, 0, values, 0, values.length);
+        System.arraycopy(other.rowTransitions, 0, rowTransitions, 0, height);
+    }
+
+    void invalidate() {
+        dirty = true;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void beforePaste(int placed, int row) {
+        while (placed != 0) {
+            int col = Integer.numberOfTrailingZeros(placed);
+            placed &= placed - 1;
+            int oldTop = board.tops[col];
+            if (row > oldTop) {
+                values[holesIndex(col)]--;
+                values[HOLES]--;
+            } else {
+                newTops[col] = Math.min(newTops[col], row);
+                cellsAbove[col]++;
+            }
+        }
+    }
+
+    void startPaste() {
+        Arrays.fill(newTops, Integer.MAX_VALUE);
+        Arrays.fill(cellsAbove, 0);
+    }
+
+    void finishPaste(int columns, int firstRow, int lastRow) {
+        int left = Integer.numberOfTrailingZeros(columns);
+        int right = 31 - Integer.numberOfLeadingZeros(columns);
+        int from = Math.max(0, left - 1);
+        int to = Math.min(width - 1, right + 1);
+
+        subtractSurface(from, to);
+        for (int col = left; col <= right; col++) {
+            if (cellsAbove[col] == 0) continue;
+            int oldHeight = values[heightIndex(col)];
+            int oldTop = height - oldHeight;
+            int added = oldTop - newTops[col] - cellsAbove[col];
+            values[holesIndex(col)] += added;
+            values[HOLES] += added;
+            values[heightIndex(col)] = height - newTops[col];
+            values[AGGREGATE_HEIGHT] += values[heightIndex(col)] - oldHeight;
+        }
+        addSurface(from, to);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            int transitions = transitions(board.rows[row]);
+            values[ROW_TRANSITIONS] += transitions - rowTransitions[row];
+            rowTransitions[row] = transitions;
+        }
+    }
+
+    private void subtractSurface(int from, int to) {
+        for (int col = from; col <= to; col++) {
+            values[WELLS] -= values[wellIndex(col)];
+            if (col < to) values[BUMPINESS] -= Math.abs(values[heightIndex(col)] - values[heightIndex(col + 1)]);
+        }
+    }
+
+    private void addSurface(int from, int to) {
+        for (int col = from; col <= to; col++) {
+            int well = well(col);
+            values[wellIndex(col)] = well;
+            values[WELLS] += well;
+            if (col < to) values[BUMPINESS] += Math.abs(values[heightIndex(col)] - values[heightIndex(col + 1)]);
+        }
+    }
+
+    private int well(int col) {
+        int left = col == 0 ? Integer.MAX_VALUE : values[heightIndex(col - 1)];
+        int right = col == width - 1 ? Integer.MAX_VALUE : values[heightIndex(col + 1)];
+        return Math.max(0, Math.min(left, right) - values[heightIndex(col)]);
+    }
+
+    private int transitions(int mask) {
+        long walled = ((mask & 0xFFFFFFFFL) << 1) | 1 | (1L << (width + 1));
+        return Long.bitCount((walled ^ (walled >>> 1)) & ((1L << (width + 1)) - 1));
+    }
+
+    private void recompute() {
+        Arrays.fill(values, 0);
+        long covered = 0;
+        for (int row = 0; row < height; row++) {
+            long mask = board.rows[row] & board.fullRow;
+            long holes = covered & ~mask;
+            values[HOLES] += Long.bitCount(holes);
+            while (holes != 0) {
+                values[holesIndex(Long.numberOfTrailingZeros(holes))]++;
+                holes &= holes - 1;
+            }
+            covered |= mask;
+            rowTransitions[row] = transitions(board.rows[row]);
+            values[ROW_TRANSITIONS] += rowTransitions[row];
+        }
+        for (int col = 0; col < width; col++) {
+            values[heightIndex(col)] = board.columnHeight(col);
+            values[AGGREGATE_HEIGHT] += values[heightIndex(col)];
+        }
+        addSurface(0, width - 1);
+        dirty = false;
+    }
+}
@@ -0,0 +1,3 @@
+public interface CellVisitor {
+    boolean visit(int col, int row, int value);
+}
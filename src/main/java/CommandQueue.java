@@ -0,0 +1,35 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+final class CommandQueue {
+    private static final class Node {
+        Runnable command;
+        volatile Node next;
+
+        Node(Runnable command) {
+            this.command = command;
+        }
+    }
+
+    private final AtomicReference<Node> tail;
+    private Node head;
+
+    CommandQueue() {
+        Node stub = new Node(null);
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    void offer(Runnable command) {
+        Node node = new Node(command);
+        tail.getAndSet(node).next = node;
+    }
+
+    Runnable poll() {
+        Node next = head.next;
+        if (next == null) return null;
+        Runnable command = next.command;
+        next.command = null;
+        head = next;
+        return command;
+    }
+}
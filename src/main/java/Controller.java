@@ -1,11 +1,11 @@
-import javax.swing.*;
+import java.awt.*;
 
 public class Controller implements ModelListener, GameEventListener {
     TetrisModel model;
     View view;
-    JPanel gamePanel;
+    Component gamePanel;
 
-    public Controller(TetrisModel model, View view, JPanel gamePanel) {
+    public Controller(TetrisModel model, View view, Component gamePanel) {
         this.view = view;
         this.model = model;
         this.gamePanel = gamePanel;
@@ -42,14 +42,12 @@ public class Controller implements ModelListener, GameEventListener {
     }
 
     @Override
-    public void onChange(TetrisModel tetrisModel) {
-        view.setFinish(model.finished);
-        gamePanel.repaint();
+    public void onChange(TetrisModel tetrisModel, int changes) {
+        view.repaintChanges(model, changes);
     }
 
     @Override
     public void over(TetrisModel tetrisModel) {
-        view.setFinish(model.finished);
         gamePanel.repaint();
     }
 
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+public final class Figure {
+    public static final int ROTATIONS = 4;
+
+    public final int type;
+    public final int rotation;
+    public final int color;
+    private final int[][] cells;
+    private final int[] rows;
+    public final int minCol;
+    public final int maxCol;
+    public final int minRow;
+    public final int maxRow;
+    private final int[] cellCols;
+    private final int[] cellRows;
+    private final int[] bottoms;
+    private final Figure[] ring;
+
+    private Figure(int type, int rotation, int[][] cells, Figure[] ring) {
+        this.type = type;
+        this.rotation = rotation;
+        this.cells = cells;
+        this.rows = Board.rowMasks(cells);
+        this.ring = ring;
+
+        int count = 0;
+        int value = 0;
+        int left = Integer.MAX_VALUE, right = -1, top = Integer.MAX_VALUE, bottom = -1;
+        for (int row = 0; row < cells.length; row++) {
+            for (int col = 0; col < cells[row].length; col++) {
+                if (cells[row][col] == 0) continue;
+                value = cells[row][col];
+                count++;
+                left = Math.min(left, col);
+                right = Math.max(right, col);
+                top = Math.min(top, row);
+                bottom = Math.max(bottom, row);
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("Figure must have at least one cell");
+        }
+        this.color = value;
+        this.minCol = left;
+        this.maxCol = right;
+        this.minRow = top;
+        this.maxRow = bottom;
+
+        this.cellCols = new int[count];
+        this.cellRows = new int[count];
+        this.bottoms = new int[cells.length];
+        Arrays.fill(bottoms, -1);
+        int i = 0;
+        for (int row = 0; row < cells.length; row++) {
+            for (int col = 0; col < cells[row].length; col++) {
+                if (cells[row][col] == 0) continue;
+                cellCols[i] = col;
+                cellRows[i] = row;
+                bottoms[col] = Math.max(bottoms[col], row);
+                i++;
+            }
+        }
+    }
+
+    public static Figure of(int[][] cells) {
+        return rotations(-1, cells)[0];
+    }
+
+    static Figure[] rotations(int type, int[][] cells) {
+        Figure[] ring = new Figure[ROTATIONS];
+        int[][] current = copy(cells);
+        for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+            ring[rotation] = new Figure(type, rotation, current, ring);
+            current = rotateClockwise(current);
+        }
+        return ring;
+    }
+
+    public Figure rotateClockwise() {
+        return ring[(rotation + 1) % ROTATIONS];
+    }
+
+    public int size() {
+        return cellCols.length;
+    }
+
+    public int[][] cells() {
+        return copy(cells);
+    }
+
+    public int cell(int row, int col) {
+        return cells[row][col];
+    }
+
+    /** Side length of the square cell grid. */
+    public int rowCount() {
+        return rows.length;
+    }
+
+    /** Occupied columns of {@code row} as a bit mask, bit 0 being the leftmost column. */
+    public int rowMask(int row) {
+        return rows[row];
+    }
+
+    public int cellCol(int i) {
+        return cellCols[i];
+    }
+
+    public int cellRow(int i) {
+        return cellRows[i];
+    }
+
+    /** Lowest occupied row of {@code col}, or -1 if the column is empty. */
+    public int bottom(int col) {
+        return bottoms[col];
+    }
+
+    private static int[][] rotateClockwise(int[][] cells) {
+        int n = cells.length;
+        int[][] rotated = new int[n][n];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                rotated[col][n - 1 - row] = cells[row][col];
+            }
+        }
+        return rotated;
+    }
+
+    private static int[][] copy(int[][] cells) {
+        int[][] copy = new int[cells.length][];
+        for (int row = 0; row < cells.length; row++) {
+            if (cells[row].length != cells.length) {
+                throw new IllegalArgumentException("Figure cells must be a square grid");
+            }
+            copy[row] = cells[row].clone();
+        }
+        return copy;
+    }
+}
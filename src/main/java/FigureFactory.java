@@ -1,22 +1,50 @@
-import java.util.Random;
-
 public class FigureFactory {
+    public static final int FIGURE_TYPES = 7;
+
+    private static final Figure[][] TABLE = buildTable();
+
+    private final PieceSource source;
+
+    public FigureFactory() {
+        this(PieceSource.random(System.nanoTime()));
+    }
+
+    public FigureFactory(PieceSource source) {
+        this.source = source;
+    }
 
-    public int[][] createNextFigure(){
-        Random random = new Random();
-        int nextFigure = random.nextInt(7) + 1;
-
-        return switch (nextFigure) {
-            case 1 -> OShape();
-            case 2 -> LShape();
-            case 3 -> JShape();
-            case 4 -> IShape();
-            case 5 -> SShape();
-            case 6 -> ZShape();
-            case 7 -> TShape();
-            default -> TShape();
+    private static Figure[][] buildTable() {
+        FigureFactory factory = new FigureFactory();
+        int[][][] shapes = {
+                factory.OShape(),
+                factory.LShape(),
+                factory.JShape(),
+                factory.IShape(),
+                factory.SShape(),
+                factory.ZShape(),
+                factory.TShape()
         };
+        Figure[][] table = new Figure[shapes.length][];
+        for (int type = 0; type < shapes.length; type++) {
+            table[type] = Figure.rotations(type, shapes[type]);
+        }
+        return table;
+    }
+
+    public static Figure figure(int type, int rotation) {
+        return TABLE[type][rotation];
+    }
+
+    public Figure createNextFigure(){
+        return figure(source.next(), 0);
+    }
+
+    public Figure peekFigure(int ahead){
+        return figure(source.peek(ahead), 0);
+    }
 
+    public PieceSource source(){
+        return source;
     }
 
     public int[][] OShape(){
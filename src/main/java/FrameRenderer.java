@@ -0,0 +1,187 @@
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class FrameRenderer {
+    public enum Format {
+        PNG,
+        GIF
+    }
+
+    private static final Color BACKGROUND = new Color(238, 238, 238);
+
+    private final View view = new View(null);
+    private final int cols;
+    private final int rows;
+    private final BufferedImage frame;
+    private final Graphics2D graphics;
+
+    public FrameRenderer(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        frame = new BufferedImage(View.imageWidth(cols), View.imageHeight(rows), BufferedImage.TYPE_INT_RGB);
+        graphics = frame.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    }
+
+    public BufferedImage render(GameState state) {
+        graphics.setColor(BACKGROUND);
+        graphics.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+        view.draw(state, graphics);
+        return frame;
+    }
+
+    /** Writes one frame per state; for GIFs each frame is shown for {@code frameMillis}. */
+    public int write(Iterator<GameState> states, Path target, Format format, int frameMillis) throws IOException {
+        return switch (format) {
+            case PNG -> writePngs(states, target);
+            case GIF -> writeGif(states, target, frameMillis);
+        };
+    }
+
+    private int writePngs(Iterator<GameState> states, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        int count = 0;
+        while (states.hasNext()) {
+            Path file = directory.resolve(String.format("frame-%05d.png", count++));
+            ImageIO.write(render(states.next()), "png", file.toFile());
+        }
+        return count;
+    }
+
+    private int writeGif(Iterator<GameState> states, Path file, int frameMillis) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        Files.deleteIfExists(file);
+        int count = 0;
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+            IIOMetadata metadata = null;
+            while (states.hasNext()) {
+                BufferedImage image = render(states.next());
+                if (metadata == null) metadata = gifMetadata(writer, image, frameMillis);
+                writer.writeToSequence(new IIOImage(image, null, metadata), null);
+                count++;
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return count;
+    }
+
+    private static IIOMetadata gifMetadata(ImageWriter writer, BufferedImage image, int frameMillis) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(Math.max(1, frameMillis / 10)));
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+        IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+        loop.setAttribute("applicationID", "NETSCAPE");
+        loop.setAttribute("authenticationCode", "2.0");
+        loop.setUserObject(new byte[] {1, 0, 0});
+        extensions.appendChild(loop);
+        root.appendChild(extensions);
+
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    /**
+     * The replay's states one gravity tick apart, starting with the initial state, so frames shown at a
+     * constant rate play back in game time. Inputs between two ticks are folded into the later frame.
+     */
+    public static Iterator<GameState> states(Replayer replayer) {
+        return new Iterator<>() {
+            private boolean started = false;
+            private boolean more = true;
+
+            @Override
+            public boolean hasNext() {
+                return more;
+            }
+
+            @Override
+            public GameState next() {
+                if (!more) throw new NoSuchElementException();
+                if (started) {
+                    try {
+                        more = replayer.tick();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                started = true;
+                return replayer.model().snapshot();
+            }
+        };
+    }
+
+    /** Renders a replay with {@code frameMillis} per gravity tick. */
+    public static int renderReplay(Path replay, Path target, Format format, int frameMillis) throws IOException {
+        return renderReplay(replay, target, format, frameMillis, new ThreadLocal<>());
+    }
+
+    private static int renderReplay(Path replay, Path target, Format format, int frameMillis,
+                                    ThreadLocal<FrameRenderer> renderers) throws IOException {
+        try (Replayer replayer = Replayer.open(replay)) {
+            Pair size = replayer.model().size();
+            FrameRenderer renderer = renderers.get();
+            if (renderer == null || renderer.cols != size.x() || renderer.rows != size.y()) {
+                renderer = new FrameRenderer(size.x(), size.y());
+                renderers.set(renderer);
+            }
+            return renderer.write(states(replayer), target, format, frameMillis);
+        }
+    }
+
+    public static void renderAll(List<Path> replays, Path outputDirectory, Format format, int frameMillis) {
+        ThreadLocal<FrameRenderer> renderers = new ThreadLocal<>();
+        replays.parallelStream().forEach(replay -> {
+            String name = replay.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+            Path target = outputDirectory.resolve(format == Format.GIF ? name + ".gif" : name);
+            try {
+                renderReplay(replay, target, format, frameMillis, renderers);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 3) {
+            System.err.println("Usage: FrameRenderer png|gif <output-dir> <replay>...");
+            System.exit(2);
+        }
+        Format format = Format.valueOf(args[0].toUpperCase());
+        Path output = Path.of(args[1]);
+        Files.createDirectories(output);
+        List<Path> replays = Arrays.stream(args, 2, args.length).map(Path::of).toList();
+        long start = System.nanoTime();
+        renderAll(replays, output, format, Integer.getInteger("tetris.frameMillis", 50));
+        System.out.printf("Rendered %d replays in %.1f ms%n", replays.size(), (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameHost implements AutoCloseable {
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    private final TickWheel[] shards;
+    private final Thread[] threads;
+    private final VirtualThreadDriver virtualDriver = new VirtualThreadDriver();
+    private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile Mode mode;
+
+    public GameHost() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameHost(int shardCount) {
+        this(shardCount, Mode.PLATFORM);
+    }
+
+    public GameHost(int shardCount, Mode mode) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.mode = mode;
+        GameMetrics.registerMBeans();
+        shards = new TickWheel[shardCount];
+        threads = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new TickWheel();
+            threads[i] = new Thread(shards[i], "tick-wheel-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    public Session open(TetrisModel model) {
+        int id = nextId.getAndIncrement();
+        Session session;
+        synchronized (this) {
+            session = new Session(id, model, driverFor(id, mode));
+            sessions.put(id, session);
+        }
+        GameMetrics.register(session.metrics);
+        session.driver.wake(session);
+        return session;
+    }
+
+    public void close(Session session) {
+        if (sessions.remove(session.id) != null) {
+            session.close();
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public synchronized void setMode(Mode mode) {
+        if (this.mode == mode) return;
+        this.mode = mode;
+        for (Session session : sessions.values()) {
+            session.moveTo(driverFor(session.id, mode));
+        }
+    }
+
+    private SessionDriver driverFor(int id, Mode mode) {
+        return switch (mode) {
+            case PLATFORM -> shards[id % shards.length];
+            case VIRTUAL -> virtualDriver;
+        };
+    }
+
+    public Session session(int id) {
+        return sessions.get(id);
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Closes every live session first, so recordings are finished and metrics retired on their own
+     * threads, then stops the drivers. Sessions that did not close in time are retired here once the
+     * shard threads have stopped.
+     */
+    @Override
+    public void close() {
+        List<Session> live = new ArrayList<>(sessions.values());
+        List<CompletableFuture<Void>> closing = new ArrayList<>(live.size());
+        for (Session session : live) closing.add(session.close());
+        try {
+            CompletableFuture.allOf(closing.toArray(new CompletableFuture[0])).get(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // a failed or stuck session is retired below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        virtualDriver.stop();
+        for (TickWheel shard : shards) {
+            shard.stop();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Session session : live) {
+            try {
+                session.retire();
+            } catch (RuntimeException e) {
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+        sessions.clear();
+    }
+}
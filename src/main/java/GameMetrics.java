@@ -0,0 +1,66 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public final class GameMetrics {
+    public static final String DOMAIN = "Tetris";
+
+    private static final Set<SessionMetrics> SESSIONS = ConcurrentHashMap.newKeySet();
+    private static final SessionMetrics RETIRED = new SessionMetrics();
+    private static final Map<String, Latency> LATENCIES = Map.of(
+            "tick", new Latency(metrics -> metrics.tick),
+            "lineClear", new Latency(metrics -> metrics.lineClear),
+            "dispatch", new Latency(metrics -> metrics.dispatch),
+            "render", new Latency(metrics -> metrics.render),
+            "inputToRepaint", new Latency(metrics -> metrics.inputToRepaint));
+    private static final Object RETIRE_LOCK = new Object();
+    private static boolean registered = false;
+
+    private GameMetrics() {
+    }
+
+    static void register(SessionMetrics metrics) {
+        SESSIONS.add(metrics);
+    }
+
+    static void unregister(SessionMetrics metrics) {
+        synchronized (RETIRE_LOCK) {
+            if (SESSIONS.remove(metrics)) metrics.mergeInto(RETIRED);
+        }
+    }
+
+    /** Readers hold the retire lock so a session is never seen both live and merged, or neither. */
+    static void forEach(Consumer<SessionMetrics> action) {
+        synchronized (RETIRE_LOCK) {
+            action.accept(RETIRED);
+            SESSIONS.forEach(action);
+        }
+    }
+
+    public static Latency latency(String name) {
+        return LATENCIES.get(name);
+    }
+
+    public static ObjectName objectName(String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=Latency,name=" + name);
+    }
+
+    public static synchronized void registerMBeans() {
+        if (registered) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Map.Entry<String, Latency> entry : LATENCIES.entrySet()) {
+                ObjectName name = objectName(entry.getKey());
+                if (!server.isRegistered(name)) server.registerMBean(entry.getValue(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metrics MBeans", e);
+        }
+        registered = true;
+    }
+}
@@ -12,14 +12,11 @@ public class GameOver implements ModelListener {
         model.addListener(this);
     }
 
-    @Override
-    public void onChange(TetrisModel tetrisModel) {
-        // Do nothing
-    }
-
     @Override
     public void over(TetrisModel tetrisModel) {
-        refreshButton.setVisible(true);
-        quitButton.setVisible(true);
+        SwingUtilities.invokeLater(() -> {
+            refreshButton.setVisible(true);
+            quitButton.setVisible(true);
+        });
     }
 }
@@ -0,0 +1,201 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class GameState {
+    private static final int BITS_PER_CELL = 3;
+    private static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+    static final int FINISHED = 1;
+    static final int PAUSED = 2;
+
+    private final int width;
+    private final int height;
+    private final long[] cells;
+    private final Figure figure;
+    private final int x;
+    private final int y;
+    private final int score;
+    private final long level;
+    private final long maxLevel;
+    private final int flags;
+    private final long rngState;
+    private final long pieceQueue;
+    private final int queued;
+    private final long sourceExtra;
+
+    private GameState(TetrisModel model) {
+        Pair size = model.size();
+        this.width = size.x();
+        this.height = size.y();
+        this.cells = pack(model, width, height);
+        this.figure = model.figure;
+        this.x = model.position.x();
+        this.y = model.position.y();
+        this.score = model.score;
+        this.level = model.level;
+        this.maxLevel = model.maxLevel;
+        this.flags = (model.finished ? FINISHED : 0) | (model.paused ? PAUSED : 0);
+        PieceSource source = model.figureFactory.source();
+        this.rngState = source.state;
+        this.pieceQueue = source.packQueue();
+        this.queued = source.queued();
+        this.sourceExtra = source.packExtra();
+    }
+
+    GameState(int width, int height, long[] cells, Figure figure, int x, int y, int score, long level, long maxLevel,
+              boolean finished, boolean paused, long rngState, long pieceQueue, int queued, long sourceExtra) {
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+        this.figure = figure;
+        this.x = x;
+        this.y = y;
+        this.score = score;
+        this.level = level;
+        this.maxLevel = maxLevel;
+        this.flags = (finished ? FINISHED : 0) | (paused ? PAUSED : 0);
+        this.rngState = rngState;
+        this.pieceQueue = pieceQueue;
+        this.queued = queued;
+        this.sourceExtra = sourceExtra;
+    }
+
+    static long[] emptyCells(int width, int height) {
+        return new long[(width * height + CELLS_PER_WORD - 1) / CELLS_PER_WORD];
+    }
+
+    static void setCell(long[] cells, int index, int value) {
+        cells[index / CELLS_PER_WORD] |= (long) (value & 7) << (index % CELLS_PER_WORD * BITS_PER_CELL);
+    }
+
+    public static GameState of(TetrisModel model) {
+        return new GameState(model);
+    }
+
+    private static long[] pack(TetrisModel model, int width, int height) {
+        long[] packed = emptyCells(width, height);
+        for (int row = 0; row < height; row++) {
+            int occupied = model.board.rows[row];
+            int base = row * width;
+            while (occupied != 0) {
+                int col = Integer.numberOfTrailingZeros(occupied);
+                occupied &= occupied - 1;
+                setCell(packed, base + col, model.cell(row, col));
+            }
+        }
+        return packed;
+    }
+
+    void restoreInto(TetrisModel model) {
+        Pair size = model.size();
+        if (size.x() != width || size.y() != height) {
+            throw new IllegalArgumentException("State is " + width + "x" + height + ", model is " + size.x() + "x" + size.y());
+        }
+        for (int row = 0; row < height; row++) {
+            model.restoreRow(row, this);
+        }
+        model.figure = figure;
+        model.position = new Pair(x, y);
+        model.score = score;
+        model.level = level;
+        model.maxLevel = maxLevel;
+        model.finished = (flags & FINISHED) != 0;
+        model.paused = (flags & PAUSED) != 0;
+        model.clearedCount = 0;
+        model.figureFactory.source().restore(rngState, pieceQueue, queued, sourceExtra);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int cell(int row, int col) {
+        int index = row * width + col;
+        return (int) (cells[index / CELLS_PER_WORD] >>> (index % CELLS_PER_WORD * BITS_PER_CELL)) & 7;
+    }
+
+    /** Builds a fresh board holding this state's locked cells. */
+    public Board board() {
+        Board board = new Board(width, height);
+        for (int row = 0; row < height; row++) {
+            int mask = 0;
+            for (int col = 0; col < width; col++) {
+                if (cell(row, col) != 0) mask |= 1 << col;
+            }
+            board.setRow(row, mask);
+        }
+        return board;
+    }
+
+    public Figure figure() {
+        return figure;
+    }
+
+    /** Number of upcoming pieces this state knows about. */
+    public int previewCount() {
+        return queued;
+    }
+
+    public Figure preview(int ahead) {
+        if (ahead < 0 || ahead >= queued) {
+            throw new IllegalArgumentException("Cannot look " + ahead + " pieces ahead, state holds " + queued);
+        }
+        return FigureFactory.figure((int) (pieceQueue >>> (ahead * 3)) & 7, 0);
+    }
+
+    public Pair position() {
+        return new Pair(x, y);
+    }
+
+    public int score() {
+        return score;
+    }
+
+    public long level() {
+        return level;
+    }
+
+    public long maxLevel() {
+        return maxLevel;
+    }
+
+    public boolean finished() {
+        return (flags & FINISHED) != 0;
+    }
+
+    public boolean paused() {
+        return (flags & PAUSED) != 0;
+    }
+
+    long rngState() {
+        return rngState;
+    }
+
+    long pieceQueue() {
+        return pieceQueue;
+    }
+
+    long sourceExtra() {
+        return sourceExtra;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameState other)) return false;
+        return width == other.width && height == other.height && figure == other.figure
+                && x == other.x && y == other.y && score == other.score
+                && level == other.level && maxLevel == other.maxLevel && flags == other.flags
+                && rngState == other.rngState && pieceQueue == other.pieceQueue
+                && queued == other.queued && sourceExtra == other.sourceExtra
+                && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(width, height, figure, x, y, score, level, flags, rngState, Arrays.hashCode(cells));
+    }
+}
@@ -0,0 +1,16 @@
+@FunctionalInterface
+public interface Heuristic {
+    Heuristic DEFAULT = weighted(-0.510066, 0.760666, -0.35663, -0.184483);
+
+    double score(Board board, int clearedRows);
+
+    static Heuristic weighted(double height, double lines, double holes, double bumpiness) {
+        return (board, clearedRows) -> {
+            int[] features = board.features();
+            return height * features[BoardFeatures.AGGREGATE_HEIGHT]
+                    + lines * clearedRows
+                    + holes * features[BoardFeatures.HOLES]
+                    + bumpiness * features[BoardFeatures.BUMPINESS];
+        };
+    }
+}
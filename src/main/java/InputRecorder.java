@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class InputRecorder implements AutoCloseable {
+    static final int MAGIC = 0x54524543;
+    static final int VERSION = 2;
+
+    static final int LEVEL_UP = 5;
+    static final int LEVEL_DOWN = 6;
+    static final int PAUSE = 7;
+    static final int RESET = 8;
+    static final int END = 15;
+    static final int EVENT_BITS = 4;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long ticks = 0;
+    private long lastEventTick = 0;
+    private boolean closed = false;
+
+    /**
+     * Starts a recording of {@code model} as it is now. The header holds a full {@link SaveGame} of the
+     * model, so a recording can start mid-game. Must be called on the thread that drives the model.
+     */
+    public InputRecorder(WritableByteChannel channel, TetrisModel model) {
+        this.channel = channel;
+        byte[] state = SaveGame.save(model);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        writeVarint(state.length);
+        flush();
+        write(ByteBuffer.wrap(state));
+    }
+
+    public static InputRecorder open(Path path, TetrisModel model) throws IOException {
+        FileChannel channel = create(path);
+        try {
+            return new InputRecorder(channel, model);
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static FileChannel create(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    public void tick() {
+        ticks++;
+    }
+
+    public void record(Move move) {
+        record(move.ordinal());
+    }
+
+    public void record(int event) {
+        writeVarint((ticks - lastEventTick) << EVENT_BITS | event);
+        lastEventTick = ticks;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public void flush() {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        record(END);
+        flush();
+        channel.close();
+    }
+
+    private void writeVarint(long value) {
+        if (buffer.remaining() < 10) flush();
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+public class InputState {
+    public static final long FRAME_NANOS = 1_000_000_000L / 60;
+    public static final long DEFAULT_DAS_NANOS = 170_000_000L;
+    public static final long DEFAULT_ARR_NANOS = 50_000_000L;
+    /** How long a release waits for the press that X11 auto-repeat sends right behind it. */
+    public static final long RELEASE_GRACE_NANOS = 5_000_000L;
+    public static final long NO_EVENT_TIME = Long.MIN_VALUE;
+
+    private static final int REPEATING = bit(Move.MOVE_LEFT) | bit(Move.MOVE_RIGHT) | bit(Move.SLIDE_DOWN);
+    private static final int MAX_REPEATS_PER_FRAME = Board.MAX_WIDTH;
+
+    /** Held keys in the low word, keys with a pending release in the high word. */
+    private final AtomicLong held = new AtomicLong();
+    private final AtomicInteger pressed = new AtomicInteger();
+    private final long[] releaseEventTimes = new long[Move.values().length];
+    private final AtomicLongArray releaseNanos = new AtomicLongArray(Move.values().length);
+    private final long dasNanos;
+    private final long arrNanos;
+    private final Repeat shift = new Repeat();
+    private final Repeat softDrop = new Repeat();
+
+    private static final class Repeat {
+        Move key;
+        long start;
+        long repeats;
+    }
+
+    public InputState() {
+        this(DEFAULT_DAS_NANOS, DEFAULT_ARR_NANOS);
+    }
+
+    public InputState(long dasNanos, long arrNanos) {
+        this.dasNanos = dasNanos;
+        this.arrNanos = arrNanos;
+    }
+
+    private static int bit(Move key) {
+        return 1 << key.ordinal();
+    }
+
+    public boolean press(Move key) {
+        return press(key, NO_EVENT_TIME);
+    }
+
+    /**
+     * X11 turns auto-repeat into a release and a press with the same event time. Such a press cancels the
+     * pending release and is not a new edge, so the held key keeps its DAS/ARR timing. Call it on the thread
+     * that delivers key events, together with {@link #release(Move, long, long)}.
+     */
+    public boolean press(Move key, long eventTime) {
+        long bit = bit(key);
+        long releasing = bit << Integer.SIZE;
+        boolean autoRepeat = eventTime != NO_EVENT_TIME && eventTime == releaseEventTimes[key.ordinal()];
+        long before = held.getAndUpdate(keys -> (keys | bit) & ~releasing);
+        if ((before & releasing) != 0 ? autoRepeat : (before & bit) != 0) return false;
+        pressed.getAndUpdate(keys -> keys | (int) bit);
+        return true;
+    }
+
+    public void release(Move key) {
+        long bit = bit(key);
+        held.getAndUpdate(keys -> keys & ~(bit | bit << Integer.SIZE));
+    }
+
+    /** Defers the release by {@link #RELEASE_GRACE_NANOS}, in case it is half of an auto-repeat pair. */
+    public void release(Move key, long eventTime, long now) {
+        long bit = bit(key);
+        releaseEventTimes[key.ordinal()] = eventTime;
+        releaseNanos.set(key.ordinal(), now);
+        held.getAndUpdate(keys -> (keys & bit) != 0 ? keys | bit << Integer.SIZE : keys);
+    }
+
+    public boolean isRepeating() {
+        return (held.get() & REPEATING) != 0;
+    }
+
+    private int finishReleases(long now) {
+        long state = held.get();
+        int releasing = (int) (state >>> Integer.SIZE);
+        if (releasing == 0) return (int) state;
+        long due = 0;
+        for (int bits = releasing; bits != 0; bits &= bits - 1) {
+            int key = Integer.numberOfTrailingZeros(bits);
+            if (now - releaseNanos.get(key) >= RELEASE_GRACE_NANOS) due |= 1L << key;
+        }
+        if (due == 0) return (int) state;
+        long finished = due;
+        // a press may have cancelled one of these releases meanwhile; only finish those still pending
+        return (int) held.updateAndGet(keys -> {
+            long still = (keys >>> Integer.SIZE) & finished;
+            return keys & ~(still | still << Integer.SIZE);
+        });
+    }
+
+    public void apply(long now, Consumer<Move> moves) {
+        int edges = pressed.getAndSet(0);
+        int keys = finishReleases(now);
+
+        if ((edges & bit(Move.ROTATE)) != 0) moves.accept(Move.ROTATE);
+        if ((edges & bit(Move.MOVE_LEFT)) != 0) start(shift, Move.MOVE_LEFT, now, moves);
+        if ((edges & bit(Move.MOVE_RIGHT)) != 0) start(shift, Move.MOVE_RIGHT, now, moves);
+        if (shift.key != null && (keys & bit(shift.key)) == 0) {
+            Move other = shift.key == Move.MOVE_LEFT ? Move.MOVE_RIGHT : Move.MOVE_LEFT;
+            shift.key = null;
+            if ((keys & bit(other)) != 0) start(shift, other, now, moves);
+        }
+        repeat(shift, now, moves);
+
+        if ((edges & bit(Move.SLIDE_DOWN)) != 0) start(softDrop, Move.SLIDE_DOWN, now, moves);
+        if (softDrop.key != null && (keys & bit(Move.SLIDE_DOWN)) == 0) softDrop.key = null;
+        repeat(softDrop, now, moves);
+
+        if ((edges & bit(Move.DROP)) != 0) moves.accept(Move.DROP);
+    }
+
+    private void start(Repeat repeat, Move key, long now, Consumer<Move> moves) {
+        repeat.key = key;
+        repeat.start = now;
+        repeat.repeats = 0;
+        moves.accept(key);
+    }
+
+    private void repeat(Repeat repeat, long now, Consumer<Move> moves) {
+        if (repeat.key == null) return;
+        long charged = now - repeat.start - dasNanos;
+        if (charged < 0) return;
+        long due = arrNanos <= 0 ? repeat.repeats + MAX_REPEATS_PER_FRAME : charged / arrNanos + 1;
+        due = Math.min(due, repeat.repeats + MAX_REPEATS_PER_FRAME);
+        while (repeat.repeats < due) {
+            moves.accept(repeat.key);
+            repeat.repeats++;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.function.Function;
+
+public class Latency implements LatencyMBean {
+    private final Function<SessionMetrics, LatencyHistogram> histogram;
+
+    Latency(Function<SessionMetrics, LatencyHistogram> histogram) {
+        this.histogram = histogram;
+    }
+
+    private long[] buckets() {
+        long[] buckets = new long[LatencyHistogram.BUCKETS];
+        GameMetrics.forEach(metrics -> histogram.apply(metrics).addTo(buckets));
+        return buckets;
+    }
+
+    private static long count(long[] buckets) {
+        long count = 0;
+        for (long bucket : buckets) count += bucket;
+        return count;
+    }
+
+    @Override
+    public long getCount() {
+        return count(buckets());
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long[] buckets = new long[LatencyHistogram.BUCKETS];
+        long[] total = new long[1];
+        GameMetrics.forEach(metrics -> {
+            LatencyHistogram latency = histogram.apply(metrics);
+            total[0] += latency.total();
+            latency.addTo(buckets);
+        });
+        long count = count(buckets);
+        return count == 0 ? 0 : (double) total[0] / count;
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return LatencyHistogram.percentile(buckets(), 0.5);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return LatencyHistogram.percentile(buckets(), 0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return LatencyHistogram.percentile(buckets(), 0.999);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        long[] max = new long[1];
+        GameMetrics.forEach(metrics -> max[0] = Math.max(max[0], histogram.apply(metrics).max()));
+        return max[0];
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+    static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    static int bucket(long nanos) {
+        return Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+    }
+
+    static long upperBound(int bucket) {
+        return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    public void record(long nanos) {
+        counts.getAndIncrement(Math.min(bucket(nanos), BUCKETS - 1));
+        total.getAndAdd(nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) current = max.get();
+    }
+
+    void addTo(long[] buckets) {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] += counts.get(i);
+    }
+
+    void mergeInto(LatencyHistogram target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count != 0) target.counts.getAndAdd(i, count);
+        }
+        target.total.getAndAdd(total.get());
+        long nanos = max.get();
+        long current = target.max.get();
+        while (nanos > current && !target.max.compareAndSet(current, nanos)) current = target.max.get();
+    }
+
+    long total() {
+        return total.get();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    static long percentile(long[] buckets, double fraction) {
+        long count = 0;
+        for (long bucket : buckets) count += bucket;
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(buckets.length - 1);
+    }
+}
@@ -14,8 +14,10 @@ public class LevelPanel extends JPanel implements ModelListener {
 
 
     @Override
-    public void onChange(TetrisModel tetrisModel) {
-        levelLabel.setText("Level: " + (11 - tetrisModel.level / 100));
+    public void onChange(TetrisModel tetrisModel, int changes) {
+        if (ModelChange.has(changes, ModelChange.LEVEL)) {
+            levelLabel.setText("Level: " + (11 - tetrisModel.level / 100));
+        }
     }
 
     @Override
@@ -0,0 +1,18 @@
+public final class ModelChange {
+    public static final int PIECE_MOVED = 1;
+    public static final int CELLS_LOCKED = 1 << 1;
+    public static final int ROWS_CLEARED = 1 << 2;
+    public static final int SCORE = 1 << 3;
+    public static final int LEVEL = 1 << 4;
+    public static final int GAME_OVER = 1 << 5;
+    public static final int RESET = 1 << 6;
+    public static final int PAUSED = 1 << 7;
+    public static final int ALL = PIECE_MOVED | CELLS_LOCKED | ROWS_CLEARED | SCORE | LEVEL | GAME_OVER | RESET | PAUSED;
+
+    private ModelChange() {
+    }
+
+    public static boolean has(int changes, int flags) {
+        return (changes & flags) != 0;
+    }
+}
@@ -1,4 +1,10 @@
 public interface ModelListener {
-    void onChange(TetrisModel tetrisModel);
+    default void onChange(TetrisModel tetrisModel) {
+    }
+
+    default void onChange(TetrisModel tetrisModel, int changes) {
+        onChange(tetrisModel);
+    }
+
     void over(TetrisModel tetrisModel);
 }
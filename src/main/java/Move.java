@@ -0,0 +1,17 @@
+public enum Move {
+    SLIDE_DOWN,
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    ROTATE,
+    DROP;
+
+    public void applyTo(GameEventListener listener) {
+        switch (this) {
+            case SLIDE_DOWN -> listener.slideDown();
+            case MOVE_LEFT -> listener.moveLeft();
+            case MOVE_RIGHT -> listener.moveRight();
+            case ROTATE -> listener.rotate();
+            case DROP -> listener.drop();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+public abstract class PieceSource {
+    public static final int DEFAULT_LOOKAHEAD = 7;
+    /** Largest lookahead whose queue still packs into a {@link GameState} at 3 bits per piece. */
+    public static final int MAX_LOOKAHEAD = Long.SIZE / 3;
+    static final int KIND_RANDOM = 0;
+    static final int KIND_BAG = 1;
+
+    private final int[] queue;
+    private final int mask;
+    private final int lookahead;
+    private int head = 0;
+    private int count = 0;
+    private final long seed;
+    long state;
+
+    protected PieceSource(long seed, int lookahead) {
+        if (lookahead < 1 || lookahead > MAX_LOOKAHEAD) {
+            throw new IllegalArgumentException("Lookahead must be between 1 and " + MAX_LOOKAHEAD + ": " + lookahead);
+        }
+        this.lookahead = lookahead;
+        int capacity = Integer.highestOneBit(lookahead) << 1;
+        this.queue = new int[capacity];
+        this.mask = capacity - 1;
+        this.seed = seed;
+        this.state = mix(seed);
+    }
+
+    public static PieceSource random(long seed) {
+        return new RandomPieceSource(seed, DEFAULT_LOOKAHEAD);
+    }
+
+    public static PieceSource bag(long seed) {
+        return new BagPieceSource(seed, DEFAULT_LOOKAHEAD);
+    }
+
+    /**
+     * Identifies the built-in source {@code source} was created as, for save files and recordings.
+     * Other subclasses cannot be rebuilt from a seed and are rejected.
+     */
+    static int kind(PieceSource source) {
+        if (source.getClass() == RandomPieceSource.class) return KIND_RANDOM;
+        if (source.getClass() == BagPieceSource.class) return KIND_BAG;
+        throw new IllegalArgumentException("Cannot persist a " + source.getClass().getName() + ", only random and bag sources can be rebuilt from a seed");
+    }
+
+    static PieceSource of(int kind, long seed, int lookahead) {
+        return switch (kind) {
+            case KIND_RANDOM -> new RandomPieceSource(seed, lookahead);
+            case KIND_BAG -> new BagPieceSource(seed, lookahead);
+            default -> throw new IllegalArgumentException("Unknown piece source kind: " + kind);
+        };
+    }
+
+    public int next() {
+        if (count == 0) fill(1);
+        int piece = queue[head];
+        head = (head + 1) & mask;
+        count--;
+        return piece;
+    }
+
+    public int peek(int ahead) {
+        if (ahead < 0 || ahead >= lookahead) {
+            throw new IllegalArgumentException("Cannot look " + ahead + " pieces ahead, lookahead is " + lookahead);
+        }
+        fill(ahead + 1);
+        return queue[(head + ahead) & mask];
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public int lookahead() {
+        return lookahead;
+    }
+
+    long packQueue() {
+        long packed = 0;
+        for (int i = 0; i < count; i++) {
+            packed |= (long) queue[(head + i) & mask] << (i * 3);
+        }
+        return packed;
+    }
+
+    int queued() {
+        return count;
+    }
+
+    long packExtra() {
+        return 0;
+    }
+
+    void unpackExtra(long extra) {
+    }
+
+    void restore(long state, long packedQueue, int queued, long extra) {
+        this.state = state;
+        this.head = 0;
+        this.count = queued;
+        for (int i = 0; i < queued; i++) {
+            queue[i] = (int) (packedQueue >>> (i * 3)) & 7;
+        }
+        unpackExtra(extra);
+    }
+
+    protected abstract int generate();
+
+    protected final int nextInt(int bound) {
+        long x = state;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state = x;
+        return (int) (((x * 0x2545F4914F6CDD1DL) >>> 33) % bound);
+    }
+
+    private void fill(int size) {
+        while (count < size) {
+            queue[(head + count) & mask] = generate();
+            count++;
+        }
+    }
+
+    private static long mix(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z == 0 ? 0x9E3779B97F4A7C15L : z;
+    }
+}
@@ -0,0 +1,22 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public record Placement(Figure figure, int x, int y, int rotations, int shift, double score) {
+
+    public Placement scored(double score) {
+        return new Placement(figure, x, y, rotations, shift, score);
+    }
+
+    public List<Move> moves() {
+        List<Move> moves = new ArrayList<>(rotations + Math.abs(shift) + 1);
+        for (int i = 0; i < rotations; i++) moves.add(Move.ROTATE);
+        Move step = shift < 0 ? Move.MOVE_LEFT : Move.MOVE_RIGHT;
+        for (int i = 0; i < Math.abs(shift); i++) moves.add(step);
+        moves.add(Move.DROP);
+        return moves;
+    }
+
+    public void applyTo(GameEventListener listener) {
+        for (Move move : moves()) move.applyTo(listener);
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class PlacementSearch {
+    public static final int PARALLEL_THRESHOLD = 48;
+
+    private final Heuristic heuristic;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public PlacementSearch() {
+        this(Heuristic.DEFAULT);
+    }
+
+    public PlacementSearch(Heuristic heuristic) {
+        this(heuristic, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    public PlacementSearch(Heuristic heuristic, ForkJoinPool pool, int parallelThreshold) {
+        this.heuristic = heuristic;
+        this.pool = pool;
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
+
+    public Heuristic heuristic() {
+        return heuristic;
+    }
+
+    /** Reads the live model, so call it on the thread that drives it, or use {@link #placements(GameState)}. */
+    public List<Placement> placements(TetrisModel model) {
+        return placements(model.board.copy(), model.figure, model.position.x(), model.position.y());
+    }
+
+    public List<Placement> placements(GameState state) {
+        return placements(state.board(), state.figure(), state.position().x(), state.position().y());
+    }
+
+    public List<Placement> placements(Board board, Figure figure, int x, int y) {
+        List<Placement> candidates = candidates(board, figure, x, y);
+        board.features();
+        double[] scores = new double[candidates.size()];
+        Evaluation evaluation = new Evaluation(board, candidates, scores, 0, candidates.size());
+        if (candidates.size() >= parallelThreshold) pool.invoke(evaluation);
+        else evaluation.compute();
+
+        List<Placement> scored = new ArrayList<>(candidates.size());
+        for (int i = 0; i < scores.length; i++) scored.add(candidates.get(i).scored(scores[i]));
+        return scored;
+    }
+
+    public Placement best(TetrisModel model) {
+        if (model.finished) return null;
+        return best(placements(model));
+    }
+
+    public List<Move> bestMoves(TetrisModel model) {
+        Placement best = best(model);
+        return best == null ? List.of() : best.moves();
+    }
+
+    public Placement best(GameState state) {
+        if (state.finished()) return null;
+        return best(placements(state));
+    }
+
+    public List<Move> bestMoves(GameState state) {
+        Placement best = best(state);
+        return best == null ? List.of() : best.moves();
+    }
+
+    static Placement best(List<Placement> placements) {
+        Placement best = null;
+        for (Placement placement : placements) {
+            if (best == null || placement.score() > best.score()) best = placement;
+        }
+        return best;
+    }
+
+    static List<Placement> candidates(Board board, Figure figure, int x, int y) {
+        List<Placement> candidates = new ArrayList<>();
+        if (!board.fits(figure, x, y)) return candidates;
+
+        boolean[] seen = new boolean[Figure.ROTATIONS * (board.width + 1)];
+        int[][] shapes = new int[Figure.ROTATIONS][];
+        Figure rotated = figure;
+        for (int rotations = 0; rotations < Figure.ROTATIONS; rotations++) {
+            if (rotations > 0) {
+                rotated = rotated.rotateClockwise();
+                if (!board.fits(rotated, x, y)) break;
+            }
+            shapes[rotations] = normalized(rotated);
+            int shape = rotations;
+            for (int earlier = 0; earlier < rotations; earlier++) {
+                if (Arrays.equals(shapes[earlier], shapes[rotations])) {
+                    shape = earlier;
+                    break;
+                }
+            }
+
+            int left = x;
+            while (board.fits(rotated, left - 1, y)) left--;
+            int right = x;
+            while (board.fits(rotated, right + 1, y)) right++;
+            for (int target = left; target <= right; target++) {
+                int key = shape * (board.width + 1) + target + rotated.minCol;
+                if (seen[key]) continue;
+                seen[key] = true;
+                int landing = board.dropRow(rotated, target, y);
+                candidates.add(new Placement(rotated, target, landing, rotations, target - x, 0));
+            }
+        }
+        return candidates;
+    }
+
+    private static int[] normalized(Figure figure) {
+        int[] shape = new int[figure.maxRow - figure.minRow + 1];
+        for (int row = figure.minRow; row <= figure.maxRow; row++) {
+            shape[row - figure.minRow] = figure.rowMask(row) >>> figure.minCol;
+        }
+        return shape;
+    }
+
+    private class Evaluation extends RecursiveAction {
+        private final Board board;
+        private final List<Placement> candidates;
+        private final double[] scores;
+        private final int from;
+        private final int to;
+
+        Evaluation(Board board, List<Placement> candidates, double[] scores, int from, int to) {
+            this.board = board;
+            this.candidates = candidates;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > parallelThreshold / 2 && to - from > 1 && inForkJoinPool()) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Evaluation(board, candidates, scores, from, middle),
+                        new Evaluation(board, candidates, scores, middle, to));
+                return;
+            }
+            Board scratch = new Board(board.width, board.height);
+            for (int i = from; i < to; i++) {
+                Placement placement = candidates.get(i);
+                scratch.copyFrom(board);
+                scratch.paste(placement.figure(), placement.x(), placement.y());
+                scores[i] = heuristic.score(scratch, scratch.clearFullRows());
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+public class RandomPieceSource extends PieceSource {
+    public RandomPieceSource(long seed, int lookahead) {
+        super(seed, lookahead);
+    }
+
+    @Override
+    protected int generate() {
+        return nextInt(FigureFactory.FIGURE_TYPES);
+    }
+}
@@ -0,0 +1,165 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+public class Replayer implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_STATE_BYTES = 16 * 1024 * 1024;
+    private static final Move[] MOVES = Move.values();
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final TetrisModel model;
+    private long ticks = 0;
+    private boolean finished = false;
+    private long pendingTicks = 0;
+    private int pendingEvent = -1;
+
+    public Replayer(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.limit(0);
+        if (readInt() != InputRecorder.MAGIC) {
+            throw new IOException("Not an input recording");
+        }
+        int version = readByte();
+        if (version != InputRecorder.VERSION) {
+            throw new IOException("Unsupported recording version: " + version);
+        }
+        long length = readVarint();
+        if (length > MAX_STATE_BYTES) {
+            throw new IOException("Recording header is too large: " + length + " bytes");
+        }
+        byte[] state = new byte[(int) length];
+        for (int read = 0; read < state.length; ) {
+            int chunk = Math.min(state.length - read, BUFFER_SIZE);
+            require(chunk);
+            buffer.get(state, read, chunk);
+            read += chunk;
+        }
+        this.model = SaveGame.load(state);
+    }
+
+    public static Replayer open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path);
+        try {
+            return new Replayer(channel);
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    public static TetrisModel replay(Path path) throws IOException {
+        try (Replayer replayer = open(path)) {
+            replayer.replayAll();
+            return replayer.model();
+        }
+    }
+
+    public TetrisModel model() {
+        return model;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public boolean step() throws IOException {
+        if (finished) return false;
+        if (pendingEvent < 0) readRecord();
+        while (pendingTicks > 0) advance();
+        apply();
+        return !finished;
+    }
+
+    /**
+     * Advances the game by one gravity tick, first applying every event recorded before it. Returns false,
+     * with the remaining events applied, once the recording has no ticks left.
+     */
+    public boolean tick() throws IOException {
+        while (!finished) {
+            if (pendingEvent < 0) readRecord();
+            if (pendingTicks > 0) {
+                advance();
+                return true;
+            }
+            apply();
+        }
+        return false;
+    }
+
+    private void readRecord() throws IOException {
+        long record = readVarint();
+        pendingEvent = (int) (record & ((1 << InputRecorder.EVENT_BITS) - 1));
+        pendingTicks = record >>> InputRecorder.EVENT_BITS;
+    }
+
+    private void advance() {
+        model.infinite();
+        ticks++;
+        pendingTicks--;
+    }
+
+    private void apply() throws IOException {
+        int event = pendingEvent;
+        pendingEvent = -1;
+        switch (event) {
+            case InputRecorder.LEVEL_UP -> model.levelUp();
+            case InputRecorder.LEVEL_DOWN -> model.levelDown();
+            case InputRecorder.PAUSE -> model.pause();
+            case InputRecorder.RESET -> model.reset();
+            case InputRecorder.END -> finished = true;
+            default -> {
+                if (event >= MOVES.length) throw new IOException("Unknown event code: " + event);
+                MOVES[event].applyTo(model);
+            }
+        }
+    }
+
+    public void replayAll() throws IOException {
+        while (step()) {
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Recording ended unexpectedly");
+            }
+        }
+        buffer.flip();
+    }
+
+    private int readByte() throws IOException {
+        require(1);
+        return buffer.get() & 0xFF;
+    }
+
+    private int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
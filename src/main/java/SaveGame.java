@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+public final class SaveGame {
+    static final int MAGIC = 0x54534156;
+    static final int VERSION = 2;
+    /** Largest board height and occupied-cell count the format's 16-bit fields can hold. */
+    static final int MAX_HEIGHT = Short.MAX_VALUE;
+    static final int MAX_OCCUPIED = 0xFFFF;
+    private static final int HEADER_BYTES = Integer.BYTES + 2 + Long.BYTES + 1 + 2 * Short.BYTES;
+    private static final int STATE_BYTES = 2 + 2 * Short.BYTES + Integer.BYTES + 2 * Long.BYTES + 1 + 2 * Long.BYTES + 1 + Long.BYTES;
+
+    private SaveGame() {
+    }
+
+    /** Saves the live model, so call it on the thread that drives it, or use {@link #save(Session)}. */
+    public static byte[] save(TetrisModel model) {
+        return save(model.snapshot(), model.figureFactory.source());
+    }
+
+    /** Saves the session's last published state; safe from any thread. */
+    public static byte[] save(Session session) {
+        return save(session.state(), session.model.figureFactory.source());
+    }
+
+    /** Only the immutable seed and kind of {@code source} are read; its progress comes from {@code state}. */
+    static byte[] save(GameState state, PieceSource source) {
+        int sourceKind = PieceSource.kind(source);
+        Figure figure = state.figure();
+        if (figure.type < 0) {
+            throw new IllegalArgumentException("Only factory figures can be saved");
+        }
+        int width = state.width();
+        int height = state.height();
+        if (height > MAX_HEIGHT) {
+            throw new IllegalArgumentException("Boards taller than " + MAX_HEIGHT + " rows cannot be saved: " + height);
+        }
+        int cellCount = width * height;
+        int occupied = 0;
+        long[] occupancy = new long[(cellCount + Long.SIZE - 1) / Long.SIZE];
+        for (int index = 0; index < cellCount; index++) {
+            if (state.cell(index / width, index % width) != 0) {
+                occupancy[index / Long.SIZE] |= 1L << index;
+                occupied++;
+            }
+        }
+        if (occupied > MAX_OCCUPIED) {
+            throw new IllegalArgumentException("Boards with more than " + MAX_OCCUPIED + " occupied cells cannot be saved: " + occupied);
+        }
+        long[] colors = new long[(occupied * 3 + Long.SIZE - 1) / Long.SIZE];
+        int bit = 0;
+        for (int index = 0; index < cellCount; index++) {
+            if ((occupancy[index / Long.SIZE] & (1L << index)) == 0) continue;
+            long color = state.cell(index / width, index % width);
+            colors[bit / Long.SIZE] |= color << bit;
+            if (bit % Long.SIZE > Long.SIZE - 3) colors[bit / Long.SIZE + 1] |= color >>> (Long.SIZE - bit % Long.SIZE);
+            bit += 3;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + Short.BYTES
+                + (occupancy.length + colors.length) * Long.BYTES + STATE_BYTES + Integer.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) sourceKind);
+        buffer.putLong(source.seed());
+        buffer.put((byte) source.lookahead());
+        buffer.putShort((short) width);
+        buffer.putShort((short) height);
+
+        buffer.putShort((short) occupied);
+        for (long word : occupancy) buffer.putLong(word);
+        for (long word : colors) buffer.putLong(word);
+
+        Pair position = state.position();
+        buffer.put((byte) figure.type);
+        buffer.put((byte) figure.rotation);
+        buffer.putShort((short) position.x());
+        buffer.putShort((short) position.y());
+        buffer.putInt(state.score());
+        buffer.putLong(state.level());
+        buffer.putLong(state.maxLevel());
+        buffer.put((byte) ((state.finished() ? GameState.FINISHED : 0) | (state.paused() ? GameState.PAUSED : 0)));
+        buffer.putLong(state.rngState());
+        buffer.putLong(state.pieceQueue());
+        buffer.put((byte) state.previewCount());
+        buffer.putLong(state.sourceExtra());
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    public static void save(TetrisModel model, Path path) throws IOException {
+        Files.write(path, save(model));
+    }
+
+    public static TetrisModel load(Path path) throws IOException {
+        return load(Files.readAllBytes(path));
+    }
+
+    public static TetrisModel load(byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_BYTES + Integer.BYTES) {
+            throw new IOException("Save file is truncated");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt(bytes.length - Integer.BYTES) != (int) crc.getValue()) {
+            throw new IOException("Save file checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a save file");
+        }
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version: " + version);
+        }
+        try {
+            return read(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Malformed save file", e);
+        }
+    }
+
+    private static TetrisModel read(ByteBuffer buffer) {
+        int sourceKind = buffer.get();
+        long seed = buffer.getLong();
+        int lookahead = buffer.get();
+        int width = buffer.getShort();
+        int height = buffer.getShort();
+        if (width < 1 || width > Board.MAX_WIDTH || height < 1) {
+            throw new IllegalArgumentException("Bad board size: " + width + "x" + height);
+        }
+        PieceSource source = PieceSource.of(sourceKind, seed, lookahead);
+
+        int cellCount = width * height;
+        int occupied = buffer.getShort() & 0xFFFF;
+        long[] occupancy = new long[(cellCount + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < occupancy.length; i++) occupancy[i] = buffer.getLong();
+        long[] colors = new long[(occupied * 3 + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < colors.length; i++) colors[i] = buffer.getLong();
+
+        long[] cells = GameState.emptyCells(width, height);
+        int bit = 0;
+        for (int word = 0; word < occupancy.length; word++) {
+            long bits = occupancy[word];
+            while (bits != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long color = colors[bit / Long.SIZE] >>> bit;
+                if (bit % Long.SIZE > Long.SIZE - 3) color |= colors[bit / Long.SIZE + 1] << (Long.SIZE - bit % Long.SIZE);
+                GameState.setCell(cells, index, (int) color);
+                bit += 3;
+            }
+        }
+
+        Figure figure = FigureFactory.figure(buffer.get(), buffer.get());
+        int x = buffer.getShort();
+        int y = buffer.getShort();
+        int score = buffer.getInt();
+        long level = buffer.getLong();
+        long maxLevel = buffer.getLong();
+        int flags = buffer.get();
+        long rngState = buffer.getLong();
+        long pieceQueue = buffer.getLong();
+        int queued = buffer.get();
+        long sourceExtra = buffer.getLong();
+        if (queued < 0 || queued > lookahead) {
+            throw new IllegalArgumentException("Queue of " + queued + " exceeds lookahead " + lookahead);
+        }
+
+        TetrisModel model = new TetrisModel(width, height, TetrisModel.DEFAULT_COLOR_NUMBER, source);
+        model.restore(new GameState(width, height, cells, figure, x, y, score, level, maxLevel,
+                (flags & GameState.FINISHED) != 0, (flags & GameState.PAUSED) != 0, rngState, pieceQueue, queued, sourceExtra));
+        return model;
+    }
+}
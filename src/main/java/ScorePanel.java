@@ -13,8 +13,10 @@ public class ScorePanel extends JPanel implements ModelListener {
     }
 
     @Override
-    public void onChange(TetrisModel model) {
-        scoreLabel.setText("Score: " + model.score);
+    public void onChange(TetrisModel model, int changes) {
+        if (ModelChange.has(changes, ModelChange.SCORE)) {
+            scoreLabel.setText("Score: " + model.score);
+        }
     }
 
     @Override
@@ -0,0 +1,290 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public class Session {
+    final int id;
+    final TetrisModel model;
+    private final CommandQueue tasks = new CommandQueue();
+    private volatile GameState published;
+    private final InputState input = new InputState();
+    private final Consumer<Move> applyMove = this::applyMove;
+    static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+
+    private long lastTick;
+    private long gravityDebt;
+    final SessionMetrics metrics = new SessionMetrics();
+
+    volatile SessionDriver driver;
+    volatile SessionDriver pendingDriver;
+    volatile boolean closed = false;
+    private final CompletableFuture<Void> retired = new CompletableFuture<>();
+    boolean rescheduleRequested = false;
+    private InputRecorder recorder;
+    final AtomicBoolean woken = new AtomicBoolean();
+
+    TickWheel wheel;
+    Session prev;
+    Session next;
+    int slot;
+    long rounds;
+
+    Session(int id, TetrisModel model, SessionDriver driver) {
+        this.id = id;
+        this.model = model;
+        this.driver = driver;
+        this.published = model.snapshot();
+        this.lastTick = System.nanoTime();
+        model.metrics = metrics;
+    }
+
+    public SessionMetrics metrics() {
+        return metrics;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public TetrisModel model() {
+        return model;
+    }
+
+    public GameState state() {
+        return published;
+    }
+
+    public long intervalNanos() {
+        long untilRow = model.gravityNanos() - gravityDebt - (System.nanoTime() - lastTick);
+        long interval = Math.max(untilRow, 0);
+        return input.isRepeating() ? Math.min(interval, InputState.FRAME_NANOS) : interval;
+    }
+
+    void tick() {
+        tick(System.nanoTime());
+    }
+
+    void tick(long now) {
+        long started = System.nanoTime();
+        model.beginBatch();
+        try {
+            input.apply(now, applyMove);
+            gravityDebt += Math.min(now - lastTick, MAX_CATCH_UP_NANOS);
+            lastTick = now;
+            long gravity = model.gravityNanos();
+            while (gravityDebt >= gravity) {
+                gravityDebt -= gravity;
+                model.infinite();
+                if (recorder != null) recorder.tick();
+                gravity = model.gravityNanos();
+            }
+        } finally {
+            publish();
+            model.endBatch();
+            metrics.tick.record(System.nanoTime() - started);
+        }
+    }
+
+    private void publish() {
+        boolean changed = model.hasPendingChanges();
+        if (changed) published = model.snapshot();
+        metrics.published(changed);
+    }
+
+    private void recordEvent(int event) {
+        if (recorder != null) recorder.record(event);
+    }
+
+    void runTasks() {
+        Runnable task = tasks.poll();
+        if (task == null) return;
+        model.beginBatch();
+        try {
+            do {
+                task.run();
+            } while ((task = tasks.poll()) != null);
+        } finally {
+            publish();
+            model.endBatch();
+        }
+    }
+
+    SessionDriver takeHandoff(SessionDriver owner) {
+        SessionDriver target = pendingDriver;
+        if (target == null || target == owner) {
+            pendingDriver = null;
+            return null;
+        }
+        pendingDriver = null;
+        driver = target;
+        return target;
+    }
+
+    public void execute(Runnable task) {
+        tasks.offer(task);
+        driver.wake(this);
+    }
+
+    public void submit(Move move) {
+        long stamp = System.nanoTime();
+        execute(() -> {
+            metrics.inputApplied(stamp);
+            applyMove(move);
+        });
+    }
+
+    private void applyMove(Move move) {
+        move.applyTo(model);
+        recordEvent(move.ordinal());
+    }
+
+    public void press(Move key) {
+        press(key, InputState.NO_EVENT_TIME);
+    }
+
+    /** Key events carry their event time so X11 auto-repeat pairs are not taken for new presses. */
+    public void press(Move key, long eventTime) {
+        if (input.press(key, eventTime)) {
+            long stamp = System.nanoTime();
+            execute(() -> {
+                metrics.inputApplied(stamp);
+                input.apply(System.nanoTime(), applyMove);
+                rescheduleRequested = true;
+            });
+        }
+    }
+
+    public void release(Move key) {
+        input.release(key);
+    }
+
+    public void release(Move key, long eventTime) {
+        input.release(key, eventTime, System.nanoTime());
+    }
+
+    public void reschedule() {
+        execute(() -> rescheduleRequested = true);
+    }
+
+    public void levelUp() {
+        execute(() -> {
+            model.levelUp();
+            recordEvent(InputRecorder.LEVEL_UP);
+            rescheduleRequested = true;
+        });
+    }
+
+    public void levelDown() {
+        execute(() -> {
+            model.levelDown();
+            recordEvent(InputRecorder.LEVEL_DOWN);
+            rescheduleRequested = true;
+        });
+    }
+
+    public void setGravityNanos(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Gravity period must not be negative: " + nanos);
+        }
+        execute(() -> {
+            model.setGravityNanos(nanos);
+            rescheduleRequested = true;
+        });
+    }
+
+    public void pause() {
+        execute(() -> {
+            model.pause();
+            recordEvent(InputRecorder.PAUSE);
+        });
+    }
+
+    public void reset() {
+        execute(() -> {
+            model.reset();
+            recordEvent(InputRecorder.RESET);
+            gravityDebt = 0;
+            lastTick = System.nanoTime();
+            rescheduleRequested = true;
+        });
+    }
+
+    /**
+     * Records this session's input to {@code path}. The recorder is created on the session thread, so its
+     * header captures exactly the state the first recorded event applies to. Models that cannot be saved
+     * are rejected here; a failure on the session thread completes the returned future exceptionally.
+     */
+    public CompletableFuture<Void> record(Path path) throws IOException {
+        SaveGame.save(published, model.figureFactory.source());
+        FileChannel channel = InputRecorder.create(path);
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                InputRecorder next = new InputRecorder(channel, model);
+                closeRecorder();
+                recorder = next;
+                started.complete(null);
+            } catch (RuntimeException e) {
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                started.completeExceptionally(e);
+            }
+        });
+        return started;
+    }
+
+    public void stopRecording() {
+        execute(this::closeRecorder);
+    }
+
+    private void closeRecorder() {
+        if (recorder == null) return;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            recorder = null;
+        }
+    }
+
+    void moveTo(SessionDriver target) {
+        pendingDriver = target;
+        driver.wake(this);
+    }
+
+    /**
+     * Retires this session on its own thread, after its last tick, so no sample lands in metrics that
+     * have already been merged into the retired totals. An active recording is finished and closed.
+     */
+    CompletableFuture<Void> close() {
+        execute(this::retire);
+        return retired;
+    }
+
+    synchronized void retire() {
+        if (closed) return;
+        closed = true;
+        RuntimeException failure = null;
+        try {
+            closeRecorder();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        model.metrics = null;
+        GameMetrics.unregister(metrics);
+        if (failure == null) {
+            retired.complete(null);
+            return;
+        }
+        retired.completeExceptionally(failure);
+        throw failure;
+    }
+}
@@ -0,0 +1,5 @@
+interface SessionDriver {
+    void wake(Session session);
+
+    void stop();
+}
@@ -0,0 +1,36 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SessionMetrics {
+    final LatencyHistogram tick = new LatencyHistogram();
+    final LatencyHistogram lineClear = new LatencyHistogram();
+    final LatencyHistogram dispatch = new LatencyHistogram();
+    final LatencyHistogram render = new LatencyHistogram();
+    final LatencyHistogram inputToRepaint = new LatencyHistogram();
+
+    private long appliedInput;
+    private final AtomicLong shownInput = new AtomicLong();
+
+    void inputApplied(long stamp) {
+        if (appliedInput == 0) appliedInput = stamp;
+    }
+
+    void published(boolean changed) {
+        if (appliedInput == 0) return;
+        if (changed) shownInput.compareAndSet(0, appliedInput);
+        appliedInput = 0;
+    }
+
+    public void rendered(long start, long end) {
+        render.record(end - start);
+        long input = shownInput.getAndSet(0);
+        if (input != 0) inputToRepaint.record(end - input);
+    }
+
+    void mergeInto(SessionMetrics target) {
+        tick.mergeInto(target.tick);
+        lineClear.mergeInto(target.lineClear);
+        dispatch.mergeInto(target.dispatch);
+        render.mergeInto(target.render);
+        inputToRepaint.mergeInto(target.inputToRepaint);
+    }
+}
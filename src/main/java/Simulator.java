@@ -0,0 +1,82 @@
+public class Simulator {
+    private final TetrisModel model;
+    private long ticks = 0;
+    private long inputs = 0;
+    private long elapsedNanos = 0;
+    private InputRecorder recorder;
+
+    public Simulator(TetrisModel model) {
+        this.model = model;
+    }
+
+    public TetrisModel model() {
+        return model;
+    }
+
+    public void record(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public long tick(long count) {
+        long start = System.nanoTime();
+        long done = 0;
+        while (done < count && !model.finished) {
+            model.infinite();
+            if (recorder != null) recorder.tick();
+            done++;
+        }
+        ticks += done;
+        elapsedNanos += System.nanoTime() - start;
+        return done;
+    }
+
+    public void apply(Move move) {
+        if (model.finished) return;
+        long start = System.nanoTime();
+        move.applyTo(model);
+        if (recorder != null) recorder.record(move);
+        inputs++;
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    public long step(Move move) {
+        apply(move);
+        return tick(1);
+    }
+
+    public long runUntilGameOver(long maxTicks) {
+        return tick(maxTicks);
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public long inputs() {
+        return inputs;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double ticksPerSecond() {
+        if (elapsedNanos == 0) return 0;
+        return ticks * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+
+        long totalTicks = 0;
+        long totalNanos = 0;
+        for (int game = 0; game < games; game++) {
+            Simulator simulator = new Simulator(new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER));
+            simulator.runUntilGameOver(maxTicks);
+            totalTicks += simulator.ticks();
+            totalNanos += simulator.elapsedNanos();
+        }
+        System.out.printf("%d games, %d ticks, %.0f ticks/s%n", games, totalTicks, totalTicks * 1_000_000_000.0 / Math.max(totalNanos, 1));
+    }
+}
@@ -3,18 +3,18 @@ import java.awt.*;
 import java.awt.Graphics;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 public class Tetris {
     static final Color[] COLORS = {Color.BLACK, Color.BLUE, Color.RED, Color.GREEN, Color.CYAN, Color.MAGENTA, Color.ORANGE, Color.YELLOW};
-    private static ScheduledExecutorService service;
+    private static final GameHost host = new GameHost(1, GameHost.Mode.valueOf(System.getProperty("tetris.threads", "platform").toUpperCase()));
+    private static final boolean ACTIVE_RENDERING = "active".equalsIgnoreCase(System.getProperty("tetris.render", "passive"));
+    private static volatile Session session;
+    private static ActiveRenderer renderer;
     static boolean isPaused = false;
     private static TetrisModel model;
     private static Controller controller;
     private static JLayeredPane layeredPane;
-    private static JPanel gamePanel;
+    private static Component gamePanel;
     private static JFrame frame;
     private static JButton refreshButton;
     private static View view;
@@ -29,8 +29,11 @@ public class Tetris {
     }
 
     private static void createService() {
-        service = Executors.newSingleThreadScheduledExecutor();
-        restartScheduler(controller, model);
+        session = host.open(model);
+        if (ACTIVE_RENDERING) {
+            renderer = new ActiveRenderer((Canvas) gamePanel, view, session, Integer.getInteger("tetris.fps", ActiveRenderer.DEFAULT_FPS));
+            renderer.start();
+        }
         frame.requestFocusInWindow();
     }
 
@@ -63,16 +66,26 @@ public class Tetris {
     }
 
     private static void createGamePanel() {
-        gamePanel = new JPanel() {
+        if (ACTIVE_RENDERING) {
+            gamePanel = ActiveRenderer.createCanvas();
+            gamePanel.setBackground(UIManager.getColor("Panel.background"));
+            gamePanel.setBounds(0, 0, 400, 700);
+            return;
+        }
+        JPanel panel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                view.draw(model, (Graphics2D) g);
+                Session current = session;
+                long start = System.nanoTime();
+                view.draw(current == null ? model.snapshot() : current.state(), (Graphics2D) g);
+                if (current != null) current.metrics().rendered(start, System.nanoTime());
             }
         };
 
-        gamePanel.setBounds(0, 0, 400, 700);
-        gamePanel.setLayout(null);
+        panel.setBounds(0, 0, 400, 700);
+        panel.setLayout(null);
+        gamePanel = panel;
     }
 
     private static void createPanels() {
@@ -104,6 +117,12 @@ public class Tetris {
             public void keyPressed(KeyEvent e) {
                 caseSwitch(e);
             }
+
+            @Override
+            public void keyReleased(KeyEvent e) {
+                Move key = keyMove(e.getKeyCode());
+                if (key != null) session.release(key, e.getWhen());
+            }
         });
     }
 
@@ -129,58 +148,39 @@ public class Tetris {
     }
 
     private static void refresh(View view) {
-        service.shutdownNow();
-        resetModel();
-        controller = new Controller(model, view, gamePanel);
-        restartScheduler(controller, model);
+        session.reset();
         frame.requestFocusInWindow();
         refreshButton.setVisible(false);
         quitButton.setVisible(false);
     }
 
-    private static void restartScheduler(Controller controller, TetrisModel model) {
-        if (service != null) {
-            service.shutdown();
-        }
-        service = Executors.newSingleThreadScheduledExecutor();
-        long interval = Math.max(model.level, 1);
-        service.scheduleAtFixedRate(controller::infinite, 0, interval, TimeUnit.MILLISECONDS);
-    }
-
-    private static void resetModel() {
-        model.reset();
+    private static Move keyMove(int keyCode) {
+        return switch (keyCode) {
+            case KeyEvent.VK_LEFT -> Move.MOVE_LEFT;
+            case KeyEvent.VK_RIGHT -> Move.MOVE_RIGHT;
+            case KeyEvent.VK_UP -> Move.ROTATE;
+            case KeyEvent.VK_DOWN -> Move.DROP;
+            case KeyEvent.VK_SPACE -> Move.SLIDE_DOWN;
+            default -> null;
+        };
     }
 
     private static void caseSwitch(KeyEvent e) {
         if (!isPaused) {
+            Move key = keyMove(e.getKeyCode());
+            if (key != null) {
+                session.press(key, e.getWhen());
+                return;
+            }
             switch (e.getKeyCode()) {
-                case KeyEvent.VK_LEFT:
-                    controller.moveLeft();
-                    break;
-                case KeyEvent.VK_RIGHT:
-                    controller.moveRight();
-                    break;
-                case KeyEvent.VK_UP:
-                    controller.rotate();
-                    break;
-                case KeyEvent.VK_DOWN:
-                    controller.drop();
-                    break;
                 case KeyEvent.VK_EQUALS:
-                    controller.levelUp();
-                    model.FirstTry = true;
-                    restartScheduler(controller, model);
+                    session.levelUp();
                     break;
                 case KeyEvent.VK_MINUS:
-                    controller.levelDown();
-                    model.FirstTry = true;
-                    restartScheduler(controller, model);
-                    break;
-                case KeyEvent.VK_SPACE:
-                    model.slideDown();
+                    session.levelDown();
                     break;
                 case KeyEvent.VK_P:
-                    model.pause();
+                    session.pause();
             }
         }
     }
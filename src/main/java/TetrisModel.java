@@ -1,7 +1,6 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.BiConsumer;
 
 public class TetrisModel implements GameEventListener {
     public static final int DEFAULT_HEIGHT = 20;
@@ -9,27 +8,42 @@ public class TetrisModel implements GameEventListener {
     public static final int DEFAULT_COLOR_NUMBER = 7;
     public static final int DEFAULT_NEXT_LEVEL = 100;
     public static final int DEFAULT_MAX_LEVEL = 1000;
+    public static final int MIN_LEVEL = 100;
 
     final private int width;
     final private int height;
-    public int[][] figure;
+    public Figure figure;
     public Pair position;
     public long level = 1000;
     public long maxLevel = 1000;
-    public boolean FirstTry = false;
+    private long gravityNanos = 0;
     int score = 0;
 
     int maxColors;
-    public int[][] field;
+    private int[][] field;
+    final Board board;
+    final FigureFactory figureFactory;
     List<ModelListener> listeners = new ArrayList<>();
     public boolean finished = false;
     public boolean paused = false;
+    final int[] clearedRows;
+    int clearedCount = 0;
+    private final int[][] spareRows;
+    private int pendingChanges = 0;
+    private int batchDepth = 0;
+    SessionMetrics metrics;
 
     public void initFigure() {
-        deleteFullRows();
-        field = shiftRowsDown(field);
-        figure = new FigureFactory().createNextFigure();
+        long start = metrics == null ? 0 : System.nanoTime();
+        if (clearFullRows() > 0) {
+            if (metrics != null) metrics.lineClear.record(System.nanoTime() - start);
+            changed(ModelChange.ROWS_CLEARED);
+        }
+        setFigure(figureFactory.createNextFigure());
+        // keep the whole preview queued so snapshots carry it
+        figureFactory.peekFigure(figureFactory.source().lookahead() - 1);
         position = new Pair(this.width / 2 - 2, 0);
+        changed(ModelChange.PIECE_MOVED);
     }
 
     public void addListener(ModelListener listener) {
@@ -41,32 +55,122 @@ public class TetrisModel implements GameEventListener {
     }
 
     public TetrisModel(int width, int height, int maxColor) {
+        this(width, height, maxColor, new FigureFactory());
+    }
+
+    public TetrisModel(int width, int height, int maxColor, PieceSource source) {
+        this(width, height, maxColor, new FigureFactory(source));
+    }
+
+    public TetrisModel(int width, int height, int maxColor, FigureFactory figureFactory) {
         this.width = width;
+        this.figureFactory = figureFactory;
         this.height = height;
         this.field = new int[height][width];
+        this.board = new Board(width, height);
+        this.clearedRows = new int[height];
+        this.spareRows = new int[height][];
         this.maxColors = maxColor;
         initFigure();
     }
 
+    public void setFigure(Figure figure) {
+        this.figure = figure;
+    }
+
+    public int cell(int row, int col) {
+        return field[row][col];
+    }
+
+    void restoreRow(int row, GameState state) {
+        int[] line = field[row];
+        int mask = 0;
+        for (int col = 0; col < width; col++) {
+            int value = state.cell(row, col);
+            line[col] = value;
+            if (value != 0) mask |= 1 << col;
+        }
+        board.setRow(row, mask);
+    }
+
+    public void setCell(int row, int col, int value) {
+        field[row][col] = value;
+        if (value == 0) board.clear(row, col);
+        else board.set(row, col);
+    }
+
+    public Figure nextFigure(int ahead) {
+        return figureFactory.peekFigure(ahead);
+    }
+
     public Pair size() {
         return new Pair(width, height);
     }
 
     public void notifyListeners() {
-        listeners.forEach(listener -> listener.onChange(this));
+        changed(ModelChange.ALL);
+    }
+
+    void changed(int changes) {
+        pendingChanges |= changes;
+        if (batchDepth == 0) flushChanges();
+    }
+
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    public void endBatch() {
+        if (--batchDepth == 0) flushChanges();
+    }
+
+    boolean hasPendingChanges() {
+        return pendingChanges != 0;
+    }
+
+    private void flushChanges() {
+        int changes = pendingChanges;
+        if (changes == 0) return;
+        pendingChanges = 0;
+        long start = metrics == null ? 0 : System.nanoTime();
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onChange(this, changes);
+        }
+        if (metrics != null) metrics.dispatch.record(System.nanoTime() - start);
+    }
+
+    /**
+     * The level is the gravity period in milliseconds, and {@link #levelUp()} stops at {@link #MIN_LEVEL},
+     * unless {@link #setGravityNanos(long)} fixed the period.
+     */
+    public long gravityNanos() {
+        return gravityNanos > 0 ? gravityNanos : Math.max(level, 1) * 1_000_000L;
+    }
+
+    /**
+     * Fixes the gravity period, down to sub-millisecond rates for simulations and bots; {@code 0} follows
+     * the level again. It is a setting rather than game state, so saves and resets keep it.
+     */
+    public void setGravityNanos(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Gravity period must not be negative: " + nanos);
+        }
+        gravityNanos = nanos;
     }
 
     public void updateScore(int total) {
         score += total;
-        notifyListeners();
+        changed(ModelChange.SCORE);
     }
 
     public void infinite() {
         if (!paused) {
-            if (FirstTry) FirstTry = false;
-            else {
+            beginBatch();
+            try {
                 if (!finished) slideDown();
                 else itsOver();
+            } finally {
+                endBatch();
             }
         }
     }
@@ -80,70 +184,75 @@ public class TetrisModel implements GameEventListener {
         var newPosition = new Pair(position.x(), position.y() + 1);
         if (isNewFigurePositionValid(newPosition)) {
             position = newPosition;
-            notifyListeners();
+            changed(ModelChange.PIECE_MOVED);
         } else {
             stay();
         }
     }
 
     public void stay() {
-        pasteFigure();
-        initFigure();
-        notifyListeners();
-        if (!isNewFigurePositionValid(position)) {
-            gameOver();
-        }
+        beginBatch();
+        try {
+            pasteFigure();
+            changed(ModelChange.CELLS_LOCKED);
+            initFigure();
+            if (!isNewFigurePositionValid(position)) {
+                gameOver();
+            }
 
-        updateScore(10);
-        nextLevel();
+            updateScore(10);
+            nextLevel();
+        } finally {
+            endBatch();
+        }
     }
 
     public void nextLevel() {
         if (this.score % DEFAULT_NEXT_LEVEL == 0) {
             int current = this.score / DEFAULT_NEXT_LEVEL;
             if (current < 1000 / DEFAULT_NEXT_LEVEL) {
+                long previous = this.level;
                 this.level = Math.min(this.level, 1000 - current * DEFAULT_NEXT_LEVEL);
                 this.maxLevel = 1000 - current * DEFAULT_NEXT_LEVEL;
+                if (this.level != previous) changed(ModelChange.LEVEL);
             }
         }
     }
 
     public void gameOver() {
         finished = true;
+        changed(ModelChange.GAME_OVER);
         itsOver();
     }
 
-    public int[][] shiftRowsDown(int[][] field) {
-        for (int row = field.length - 2; row >= 0; row--) {
-            int current = row;
-            while (current < field.length - 1 && isRowFullOfZeros(current + 1)) {
-                System.arraycopy(field[current], 0, field[current + 1], 0, field[current].length);
-                Arrays.fill(field[current], 0);
-                current++;
+    public int clearFullRows() {
+        int count = 0;
+        int write = height - 1;
+        for (int read = height - 1; read >= 0; read--) {
+            if (board.isRowFull(read)) {
+                clearedRows[count] = read;
+                spareRows[count] = field[read];
+                count++;
+                continue;
             }
-        }
-        return field;
-    }
-
-    public void deleteFullRows() {
-        for (int row = 0; row < field.length; row++) {
-            if (isRowFullOfOnes(row)) {
-                Arrays.fill(field[row], 0);
+            if (write != read) {
+                field[write] = field[read];
+                board.moveRow(read, write);
             }
+            write--;
         }
+        for (int row = 0; row < count; row++) {
+            Arrays.fill(spareRows[row], 0);
+            field[row] = spareRows[row];
+            spareRows[row] = null;
+            board.clearRow(row);
+        }
+        clearedCount = count;
+        return count;
     }
 
     public boolean isNewFigurePositionValid(Pair pair) {
-        boolean[] result = new boolean[1];
-        result[0] = true;
-
-        walkThroughAllFigureCells(pair, (absPos, _) -> {
-            if (result[0]) {
-                result[0] = checkAbsPos(absPos);
-            }
-        });
-
-        return result[0];
+        return board.fits(figure, pair.x(), pair.y());
     }
 
     @Override
@@ -151,7 +260,7 @@ public class TetrisModel implements GameEventListener {
         var newPosition = new Pair(position.x() - 1, position.y());
         if (isNewFigurePositionValid(newPosition)) {
             position = newPosition;
-            notifyListeners();
+            changed(ModelChange.PIECE_MOVED);
         }
     }
 
@@ -160,42 +269,50 @@ public class TetrisModel implements GameEventListener {
         var newPosition = new Pair(position.x() + 1, position.y());
         if (isNewFigurePositionValid(newPosition)) {
             position = newPosition;
-            notifyListeners();
+            changed(ModelChange.PIECE_MOVED);
         }
     }
 
     @Override
     public void drop() {
-        Pair newPosition = new Pair(position.x(), position.y() + 1);
-        while (isNewFigurePositionValid(newPosition)) {
-            position = newPosition;
-            newPosition = new Pair(position.x(), position.y() + 1);
+        int landing = board.dropRow(figure, position.x(), position.y());
+        if (landing > position.y()) {
+            position = new Pair(position.x(), landing);
+            changed(ModelChange.PIECE_MOVED);
         }
     }
 
+    public Pair ghostPosition() {
+        return new Pair(position.x(), board.dropRow(figure, position.x(), position.y()));
+    }
+
+    public int columnHeight(int col) {
+        return board.columnHeight(col);
+    }
+
+    public int[] features() {
+        return board.features();
+    }
+
     @Override
     public void rotate() {
-        tryRotation();
-        notifyListeners();
+        if (tryRotation()) changed(ModelChange.PIECE_MOVED);
     }
 
-    public void tryRotation() {
-        int[][] rotated = new int[figure.length][figure[0].length];
-        int[][] prev = figure;
-        for (int row = 0; row < figure.length; row++) {
-            for (int col = 0; col < figure[row].length; col++) {
-                rotated[col][3 - row] = figure[row][col];
-            }
-        }
-        figure = rotated;
-        if (!isNewFigurePositionValid(position)) {
-            figure = prev;
+    public boolean tryRotation() {
+        Figure rotated = figure.rotateClockwise();
+        if (board.fits(rotated, position.x(), position.y())) {
+            figure = rotated;
+            return true;
         }
+        return false;
     }
 
     public boolean checkAbsPos(Pair absPos) {
-        int absX = absPos.x();
-        int absY = absPos.y();
+        return checkAbsPos(absPos.x(), absPos.y());
+    }
+
+    public boolean checkAbsPos(int absX, int absY) {
         if (0 > absX || absX >= this.width) {
             return false;
         }
@@ -203,60 +320,70 @@ public class TetrisModel implements GameEventListener {
             return false;
         }
 
-        return field[absY][absX] == 0;
+        return !board.isOccupied(absY, absX);
     }
 
-    public void walkThroughAllFigureCells(Pair position, BiConsumer<Pair, Pair> payload) {
-        for (int row = 0; row < figure.length; row++) {
-            for (int col = 0; col < figure[row].length; col++) {
-                if (figure[row][col] == 0) continue;
-
-                int absRow = position.y() + row;
-                int absCol = position.x() + col;
-                payload.accept(new Pair(absCol, absRow), new Pair(col, row));
-            }
+    public boolean forEachFigureCell(int x, int y, CellVisitor visitor) {
+        for (int i = 0; i < figure.size(); i++) {
+            if (!visitor.visit(x + figure.cellCol(i), y + figure.cellRow(i), figure.color)) return false;
         }
+        return true;
     }
 
     public void pasteFigure() {
-        walkThroughAllFigureCells(position, (absPos, relPos) -> field[absPos.y()][absPos.x()] = figure[relPos.y()][relPos.x()]);
+        int x = position.x();
+        int y = position.y();
+        for (int i = 0; i < figure.size(); i++) {
+            field[y + figure.cellRow(i)][x + figure.cellCol(i)] = figure.color;
+        }
+        board.paste(figure, x, y);
     }
 
 
     public boolean isRowFullOfOnes(int i) {
-        for (int j = 0; j < field[i].length; j++) {
-            if (field[i][j] == 0) return false;
-        }
-        return true;
+        return board.isRowFull(i);
     }
 
     public boolean isRowFullOfZeros(int i) {
-        for (int j = 0; j < field[i].length; j++) {
-            if (field[i][j] != 0) return false;
-        }
-        return true;
+        return board.isRowEmpty(i);
     }
 
     public void levelUp() {
-        this.level = Math.max(this.level - 100, 100);
-        notifyListeners();
+        this.level = Math.max(this.level - 100, MIN_LEVEL);
+        changed(ModelChange.LEVEL);
     }
 
     public void levelDown() {
         this.level = Math.min(this.level + 100, maxLevel);
-        notifyListeners();
+        changed(ModelChange.LEVEL);
     }
 
     public void reset() {
         field = new int[height][width];
+        board.reset();
         score = 0;
         finished = false;
         level = 1000;
-        initFigure();
-        notifyListeners();
+        beginBatch();
+        try {
+            initFigure();
+            changed(ModelChange.ALL);
+        } finally {
+            endBatch();
+        }
+    }
+
+    public GameState snapshot() {
+        return GameState.of(this);
+    }
+
+    public void restore(GameState state) {
+        state.restoreInto(this);
+        changed(ModelChange.ALL);
     }
 
     public void pause() {
         this.paused = !this.paused;
+        changed(ModelChange.PAUSED);
     }
 }
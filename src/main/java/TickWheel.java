@@ -0,0 +1,160 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+public class TickWheel implements Runnable, SessionDriver {
+    static final long TICK_NANOS = 1_000_000;
+    static final int SLOTS = 1024;
+    private static final int MASK = SLOTS - 1;
+
+    private final Session[] slots = new Session[SLOTS];
+    private final Queue<Session> ready = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+    private volatile Thread thread;
+    private long currentTick = 0;
+    private volatile int sessions = 0;
+
+    @Override
+    public void wake(Session session) {
+        if (session.woken.compareAndSet(false, true)) {
+            ready.add(session);
+        }
+    }
+
+    public int sessionCount() {
+        return sessions;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) LockSupport.unpark(current);
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        long start = System.nanoTime();
+        while (running) {
+            long wait = start + (currentTick + 1) * TICK_NANOS - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            serviceReady();
+            currentTick++;
+            expire((int) (currentTick & MASK));
+        }
+    }
+
+    private void serviceReady() {
+        Session session;
+        while ((session = ready.poll()) != null) {
+            session.woken.set(false);
+            service(session);
+        }
+    }
+
+    private void service(Session session) {
+        if (session.driver != this) {
+            remove(session);
+            session.driver.wake(session);
+            return;
+        }
+        try {
+            session.runTasks();
+        } catch (RuntimeException e) {
+            fail(session, e);
+            return;
+        }
+        if (session.closed) {
+            remove(session);
+            return;
+        }
+        if (session.pendingDriver != null) {
+            remove(session);
+            SessionDriver target = session.takeHandoff(this);
+            if (target != null) {
+                target.wake(session);
+                return;
+            }
+        }
+        if (session.wheel != this) {
+            add(session);
+        } else if (session.rescheduleRequested) {
+            unlink(session);
+            schedule(session);
+        }
+        session.rescheduleRequested = false;
+    }
+
+    private void add(Session session) {
+        sessions++;
+        schedule(session);
+    }
+
+    private void remove(Session session) {
+        if (session.wheel != this) return;
+        unlink(session);
+        session.wheel = null;
+        sessions--;
+    }
+
+    private void schedule(Session session) {
+        long delay = Math.max(1, session.intervalNanos() / TICK_NANOS);
+        long target = currentTick + delay;
+        int slot = (int) (target & MASK);
+        session.wheel = this;
+        session.slot = slot;
+        session.rounds = (delay - 1) / SLOTS;
+        session.prev = null;
+        session.next = slots[slot];
+        if (session.next != null) session.next.prev = session;
+        slots[slot] = session;
+    }
+
+    private void unlink(Session session) {
+        if (session.prev != null) session.prev.next = session.next;
+        else if (slots[session.slot] == session) slots[session.slot] = session.next;
+        if (session.next != null) session.next.prev = session.prev;
+        session.prev = null;
+        session.next = null;
+    }
+
+    private void expire(int slot) {
+        Session session = slots[slot];
+        slots[slot] = null;
+        while (session != null) {
+            Session next = session.next;
+            session.prev = null;
+            session.next = null;
+            if (session.rounds > 0) {
+                session.rounds--;
+                session.next = slots[slot];
+                if (session.next != null) session.next.prev = session;
+                slots[slot] = session;
+            } else {
+                fire(session);
+            }
+            session = next;
+        }
+    }
+
+    private void fire(Session session) {
+        try {
+            session.tick();
+        } catch (RuntimeException e) {
+            fail(session, e);
+            return;
+        }
+        schedule(session);
+    }
+
+    /** Drops a session whose task or tick threw, so one bad session cannot stop the whole shard. */
+    private void fail(Session session, RuntimeException e) {
+        remove(session);
+        Thread current = Thread.currentThread();
+        current.getUncaughtExceptionHandler().uncaughtException(current, e);
+    }
+}
@@ -1,87 +1,256 @@
-import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 
 public class View {
     static final int BOX_SIZE = 30;
+    private static final Font TEXT_FONT = new Font("Arial", Font.BOLD, 15);
+    private static final Font GAME_OVER_FONT = new Font("Arial", Font.BOLD, 36);
+    private static final String GAME_OVER_MESSAGE = "Game Over";
 
-    private final int ORIGIN = 50;
-    private final JPanel gamePanel;
-    private boolean finished = false;
-    private final TetrisModel model;
+    static final int ORIGIN = 50;
+    private final Component gamePanel;
+    private Figure lastFigure;
+    private int lastCol;
+    private int lastRow;
 
-    public View(JPanel gamePanel, TetrisModel model) {
+    private int layerRows = -1;
+    private int layerCols = -1;
+    private Image boardLayer;
+    private final Image[] tiles = new Image[Tetris.COLORS.length];
+    private Image gameOverLayer;
+    private int gameOverWidth = -1;
+    private int gameOverHeight = -1;
+    private int gameOverX;
+    private int gameOverY;
+
+    private FontMetrics textMetrics;
+    private int shownScore = -1;
+    private String scoreText;
+    private long shownLevel = -1;
+    private String levelText;
+    private int levelX;
+
+    public View(Component gamePanel, TetrisModel model) {
+        this(gamePanel);
+        rememberFigure(model);
+    }
+
+    public View(Component gamePanel) {
         this.gamePanel = gamePanel;
-        this.model = model;
+    }
+
+    public static int imageWidth(int cols) {
+        return ORIGIN * 2 + cols * BOX_SIZE + 1;
+    }
+
+    public static int imageHeight(int rows) {
+        return ORIGIN * 2 + rows * BOX_SIZE + 1;
+    }
+
+    public void repaintChanges(TetrisModel model, int changes) {
+        Pair size = model.size();
+        int rows = size.y();
+        int cols = size.x();
+        if (ModelChange.has(changes, ModelChange.GAME_OVER | ModelChange.RESET)) {
+            rememberFigure(model);
+            gamePanel.repaint();
+            return;
+        }
+        if (ModelChange.has(changes, ModelChange.SCORE | ModelChange.LEVEL)) {
+            gamePanel.repaint(ORIGIN, 0, cols * BOX_SIZE + 1, ORIGIN);
+        }
+        if (ModelChange.has(changes, ModelChange.ROWS_CLEARED)) {
+            int lowest = 0;
+            for (int i = 0; i < model.clearedCount; i++) {
+                lowest = Math.max(lowest, model.clearedRows[i]);
+            }
+            repaintCells(0, lowest, 0, cols - 1);
+        }
+        if (ModelChange.has(changes, ModelChange.PIECE_MOVED | ModelChange.CELLS_LOCKED)) {
+            Figure figure = model.figure;
+            int col = model.position.x();
+            int row = model.position.y();
+            int top = Math.min(lastRow + lastFigure.minRow, row + figure.minRow);
+            int bottom = Math.max(lastRow + lastFigure.maxRow, row + figure.maxRow);
+            int left = Math.min(lastCol + lastFigure.minCol, col + figure.minCol);
+            int right = Math.max(lastCol + lastFigure.maxCol, col + figure.maxCol);
+            repaintCells(Math.max(top, 0), Math.min(bottom, rows - 1), Math.max(left, 0), Math.min(right, cols - 1));
+            rememberFigure(model);
+        }
+    }
+
+    private void rememberFigure(TetrisModel model) {
+        lastFigure = model.figure;
+        lastCol = model.position.x();
+        lastRow = model.position.y();
+    }
+
+    private void repaintCells(int top, int bottom, int left, int right) {
+        if (top > bottom || left > right) return;
+        gamePanel.repaint(ORIGIN + left * BOX_SIZE, ORIGIN + top * BOX_SIZE,
+                (right - left + 1) * BOX_SIZE + 1, (bottom - top + 1) * BOX_SIZE + 1);
     }
 
     public void draw(TetrisModel model, Graphics2D graphics) {
-        drawData(model.field, 0, 0, true, graphics);
-        drawData(model.figure, model.position.x(), model.position.y(), false, graphics);
-        drawGrid(model.field.length, model.field[0].length, graphics);
-        drawScore(graphics);
-        drawLevel(graphics);
-        if (finished) drawGameOver(graphics);
-    }
-
-    private void drawData(int[][] field, int col, int row, boolean drawBackground, Graphics2D graphics) {
-        for (int r = 0; r < field.length; r++) {
-            for (int c = 0; c < field[r].length; c++) {
-                if (field[r][c] != 0 || drawBackground) {
-                    drawBoxAt(row + r, col + c, field[r][c], graphics);
-                }
+        draw(model.snapshot(), graphics);
+    }
+
+    public void draw(GameState state, Graphics2D graphics) {
+        int rows = state.height();
+        int cols = state.width();
+        Rectangle clip = graphics.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, imageWidth(cols), imageHeight(rows));
+
+        int top = Math.max(0, (clip.y - ORIGIN) / BOX_SIZE - 1);
+        int bottom = Math.min(rows - 1, (clip.y + clip.height - ORIGIN) / BOX_SIZE);
+        int left = Math.max(0, (clip.x - ORIGIN) / BOX_SIZE - 1);
+        int right = Math.min(cols - 1, (clip.x + clip.width - ORIGIN) / BOX_SIZE);
+        if (rows != layerRows || cols != layerCols || boardLayerLost()) buildBoardLayers(rows, cols);
+        graphics.drawImage(boardLayer, ORIGIN, ORIGIN, null);
+        drawField(state, top, bottom, left, right, graphics);
+        Pair position = state.position();
+        drawFigure(state.figure(), position.x(), position.y(), graphics);
+        if (clip.y < ORIGIN) {
+            drawScore(state, graphics);
+            drawLevel(state, graphics);
+        }
+        if (state.finished()) drawGameOver(graphics);
+    }
+
+    private void drawField(GameState state, int top, int bottom, int left, int right, Graphics2D graphics) {
+        for (int r = top; r <= bottom; r++) {
+            for (int c = left; c <= right; c++) {
+                int value = state.cell(r, c);
+                if (value != 0) drawBoxAt(r, c, value, graphics);
             }
         }
     }
 
-    private void drawBoxAt(int col, int row, int value, Graphics2D graphics) {
-        graphics.setColor(Tetris.COLORS[value]);
-        graphics.fillRect(ORIGIN + row * BOX_SIZE, ORIGIN + col * BOX_SIZE, BOX_SIZE, BOX_SIZE);
-        graphics.setColor(Color.BLACK);
-        graphics.drawRect(ORIGIN + row * BOX_SIZE, ORIGIN + col * BOX_SIZE, BOX_SIZE, BOX_SIZE);
+    private GraphicsConfiguration configuration() {
+        return gamePanel == null ? null : gamePanel.getGraphicsConfiguration();
+    }
+
+    private boolean boardLayerLost() {
+        return boardLayer instanceof VolatileImage volatileLayer
+                && volatileLayer.validate(configuration()) != VolatileImage.IMAGE_OK;
+    }
+
+    private Image createLayer(int width, int height, int transparency) {
+        GraphicsConfiguration configuration = configuration();
+        if (configuration != null) {
+            if (transparency == Transparency.OPAQUE) {
+                return configuration.createCompatibleVolatileImage(width, height, transparency);
+            }
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+        int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+        return new BufferedImage(width, height, type);
     }
 
-    private void drawGrid(int rows, int cols, Graphics2D graphics) {
-        graphics.setColor(Color.GRAY);
+    private void buildBoardLayers(int rows, int cols) {
+        int width = cols * BOX_SIZE + 1;
+        int height = rows * BOX_SIZE + 1;
+
+        boardLayer = createLayer(width, height, Transparency.OPAQUE);
+        Graphics2D board = (Graphics2D) boardLayer.getGraphics();
+        board.setColor(Tetris.COLORS[0]);
+        board.fillRect(0, 0, width, height);
+        board.setColor(Color.GRAY);
         for (int r = 0; r <= rows; r++) {
-            graphics.drawLine(ORIGIN, ORIGIN + r * BOX_SIZE, ORIGIN + cols * BOX_SIZE, ORIGIN + r * BOX_SIZE);
+            board.drawLine(0, r * BOX_SIZE, cols * BOX_SIZE, r * BOX_SIZE);
         }
         for (int c = 0; c <= cols; c++) {
-            graphics.drawLine(ORIGIN + c * BOX_SIZE, ORIGIN, ORIGIN + c * BOX_SIZE, ORIGIN + rows * BOX_SIZE);
+            board.drawLine(c * BOX_SIZE, 0, c * BOX_SIZE, rows * BOX_SIZE);
+        }
+        board.dispose();
+
+        layerRows = rows;
+        layerCols = cols;
+    }
+
+    private void drawFigure(Figure figure, int col, int row, Graphics2D graphics) {
+        for (int i = 0; i < figure.size(); i++) {
+            drawBoxAt(row + figure.cellRow(i), col + figure.cellCol(i), figure.color, graphics);
         }
     }
 
-    public void setFinish(boolean finished) {
-        this.finished = finished;
-        gamePanel.repaint();
+    private void drawBoxAt(int col, int row, int value, Graphics2D graphics) {
+        graphics.drawImage(tile(value), ORIGIN + row * BOX_SIZE, ORIGIN + col * BOX_SIZE, null);
+    }
+
+    private Image tile(int value) {
+        Image tile = tiles[value];
+        if (tile != null) return tile;
+        GraphicsConfiguration configuration = configuration();
+        tile = configuration != null
+                ? configuration.createCompatibleImage(BOX_SIZE + 1, BOX_SIZE + 1, Transparency.OPAQUE)
+                : new BufferedImage(BOX_SIZE + 1, BOX_SIZE + 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D box = (Graphics2D) tile.getGraphics();
+        box.setColor(Tetris.COLORS[value]);
+        box.fillRect(0, 0, BOX_SIZE, BOX_SIZE);
+        box.setColor(Color.GRAY);
+        box.drawRect(0, 0, BOX_SIZE, BOX_SIZE);
+        box.dispose();
+        tiles[value] = tile;
+        return tile;
     }
 
     private void drawGameOver(Graphics2D graphics) {
-        graphics.setColor(Color.RED);
-        graphics.setFont(new Font("Arial", Font.BOLD, 36));
-        FontMetrics metrics = graphics.getFontMetrics();
-        String message = "Game Over";
-        int x = ORIGIN + (gamePanel.getWidth() - metrics.stringWidth(message)) / 2 - 50;
-        int y = ORIGIN + (gamePanel.getHeight()  - metrics.getHeight()) / 2 - 125;
-        graphics.drawString(message, x, y);
+        Rectangle bounds = gamePanel != null ? gamePanel.getBounds() : graphics.getDeviceConfiguration().getBounds();
+        int panelWidth = bounds.width;
+        int panelHeight = bounds.height;
+        if (gameOverLayer == null || panelWidth != gameOverWidth || panelHeight != gameOverHeight) {
+            buildGameOverLayer(graphics, panelWidth, panelHeight);
+        }
+        graphics.drawImage(gameOverLayer, gameOverX, gameOverY, null);
+    }
+
+    private void buildGameOverLayer(Graphics2D graphics, int panelWidth, int panelHeight) {
+        FontMetrics metrics = graphics.getFontMetrics(GAME_OVER_FONT);
+        int width = metrics.stringWidth(GAME_OVER_MESSAGE);
+        int height = metrics.getHeight();
+
+        gameOverLayer = createLayer(width, height, Transparency.TRANSLUCENT);
+        Graphics2D overlay = (Graphics2D) gameOverLayer.getGraphics();
+        overlay.setRenderingHints(graphics.getRenderingHints());
+        overlay.setColor(Color.RED);
+        overlay.setFont(GAME_OVER_FONT);
+        overlay.drawString(GAME_OVER_MESSAGE, 0, metrics.getAscent());
+        overlay.dispose();
+
+        gameOverX = ORIGIN + (panelWidth - width) / 2 - 50;
+        gameOverY = ORIGIN + (panelHeight - height) / 2 - 125 - metrics.getAscent();
+        gameOverWidth = panelWidth;
+        gameOverHeight = panelHeight;
+    }
+
+    private FontMetrics textMetrics(Graphics2D graphics) {
+        if (textMetrics == null) textMetrics = graphics.getFontMetrics(TEXT_FONT);
+        return textMetrics;
     }
 
-    private void drawScore(Graphics2D graphics){
+    private void drawScore(GameState state, Graphics2D graphics){
+        if (state.score() != shownScore) {
+            shownScore = state.score();
+            scoreText = "Score: " + shownScore;
+        }
         graphics.setColor(Color.BLACK);
-        graphics.setFont(new Font("Arial", Font.BOLD, 15));
-        String message = "Score: " + model.score;
+        graphics.setFont(TEXT_FONT);
         int y = ORIGIN - 5;
-        graphics.drawString(message, ORIGIN, y);
+        graphics.drawString(scoreText, ORIGIN, y);
     }
 
-    private void drawLevel(Graphics2D graphics){
+    private void drawLevel(GameState state, Graphics2D graphics){
+        if (state.level() != shownLevel) {
+            shownLevel = state.level();
+            levelText = "Level: " + (11 - shownLevel / 100);
+            levelX = ORIGIN + state.width() * BOX_SIZE - textMetrics(graphics).stringWidth(levelText);
+        }
         graphics.setColor(Color.BLACK);
-        graphics.setFont(new Font("Arial", Font.BOLD, 15));
-        FontMetrics metrics = graphics.getFontMetrics();
-        String message = "Level: " + (11 - (model.level) / 100);
-
-        int x = ORIGIN + model.field[0].length * BOX_SIZE - metrics.stringWidth(message);
+        graphics.setFont(TEXT_FONT);
         int y = ORIGIN - 5;
-        graphics.drawString(message, x, y);
+        graphics.drawString(levelText, levelX, y);
     }
 
 
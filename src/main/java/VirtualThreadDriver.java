@@ -0,0 +1,84 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+public class VirtualThreadDriver implements SessionDriver {
+    private final Map<Session, Thread> loops = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    @Override
+    public void wake(Session session) {
+        if (session.driver != this) {
+            session.driver.wake(session);
+            return;
+        }
+        if (!running) return;
+        Thread[] created = new Thread[1];
+        Thread loop = loops.computeIfAbsent(session, key -> created[0] = Thread.ofVirtual()
+                .name("session-" + key.id)
+                .unstarted(() -> loop(key)));
+        if (loop == created[0]) loop.start();
+        else LockSupport.unpark(loop);
+    }
+
+    public int sessionCount() {
+        return loops.size();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        loops.values().forEach(LockSupport::unpark);
+    }
+
+    /**
+     * The loop is registered in {@code loops} before it starts and always deregisters itself on exit, so a
+     * later wake starts a fresh loop instead of unparking a dead thread. A task or tick that throws ends
+     * only this session's loop.
+     */
+    private void loop(Session session) {
+        Thread self = Thread.currentThread();
+        try {
+            run(session);
+        } catch (RuntimeException e) {
+            loops.remove(session, self);
+            self.getUncaughtExceptionHandler().uncaughtException(self, e);
+        } finally {
+            loops.remove(session, self);
+        }
+    }
+
+    private void run(Session session) {
+        long deadline = System.nanoTime() + session.intervalNanos();
+        while (true) {
+            // a wake can race a handoff away from this driver; the new owner services the session
+            if (session.driver != this) {
+                loops.remove(session, Thread.currentThread());
+                session.driver.wake(session);
+                return;
+            }
+            session.runTasks();
+            if (session.closed || !running) return;
+            if (session.pendingDriver != null) {
+                SessionDriver target = session.takeHandoff(this);
+                if (target != null) {
+                    loops.remove(session, Thread.currentThread());
+                    target.wake(session);
+                    return;
+                }
+            }
+
+            long now = System.nanoTime();
+            if (session.rescheduleRequested) {
+                session.rescheduleRequested = false;
+                deadline = now + session.intervalNanos();
+            }
+            if (now >= deadline) {
+                session.tick();
+                deadline = now + session.intervalNanos();
+                continue;
+            }
+            LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+}
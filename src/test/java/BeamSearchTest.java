@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeamSearchTest {
+    private TetrisModel model;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp(){
+        model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(9));
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        pool.shutdown();
+    }
+
+    @Test
+    public void searchesFullDepthTest(){
+        BeamSearch search = new BeamSearch(Heuristic.DEFAULT, pool, 3, 8, TimeUnit.SECONDS.toNanos(10));
+        BeamSearch.Result result = search.search(model);
+        assertEquals(3, result.depth());
+        assertNotNull(result.placement());
+        assertEquals(model.figure.type, result.placement().figure().type);
+    }
+
+    @Test
+    public void leavesModelBoardUntouchedTest(){
+        assertTrue(model.board.features.isDirty());
+        new BeamSearch(Heuristic.DEFAULT, pool, 2, 4, TimeUnit.SECONDS.toNanos(10)).search(model);
+        assertTrue(model.board.features.isDirty());
+    }
+
+    @Test
+    public void searchesPublishedStateTest(){
+        BeamSearch search = new BeamSearch(Heuristic.DEFAULT, pool, 3, 8, TimeUnit.SECONDS.toNanos(10));
+        GameState state = model.snapshot();
+        BeamSearch.Result fromState = search.search(state);
+        assertEquals(3, fromState.depth());
+        assertEquals(search.search(model).placement(), fromState.placement());
+    }
+
+    @Test
+    public void budgetStopsAfterFirstPieceTest(){
+        BeamSearch search = new BeamSearch(Heuristic.DEFAULT, pool, 5, 8, 0);
+        BeamSearch.Result result = search.search(model);
+        assertEquals(1, result.depth());
+        assertNotNull(result.placement());
+    }
+
+    @Test
+    public void depthLimitedByPreviewTest(){
+        int preview = model.figureFactory.source().lookahead();
+        BeamSearch search = new BeamSearch(Heuristic.DEFAULT, pool, preview + 5, 2, TimeUnit.SECONDS.toNanos(10));
+        assertEquals(preview + 1, search.search(model).depth());
+    }
+
+    @Test
+    public void playsLongerThanItsLengthTest(){
+        BeamSearch search = new BeamSearch(Heuristic.DEFAULT, pool, 2, 4, TimeUnit.SECONDS.toNanos(10));
+        for (int piece = 0; piece < 60; piece++) {
+            BeamSearch.Result result = search.search(model);
+            assertNotNull(result.placement());
+            result.moves().forEach(move -> move.applyTo(model));
+            assertEquals(new Pair(result.placement().x(), result.placement().y()), model.position);
+            model.stay();
+            assertFalse(model.finished);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardTest {
+    private Board board;
+
+    @BeforeEach
+    public void setUp(){
+        board = new Board(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT);
+    }
+
+    @Test
+    public void rowMasksTest(){
+        int[] masks = Board.rowMasks(FigureFactory.J());
+        assertArrayEquals(new int[] {0b100, 0b100, 0b110, 0}, masks);
+    }
+
+    @Test
+    public void fitsInsideWallsTest(){
+        int[] masks = Board.rowMasks(FigureFactory.J());
+        assertTrue(board.fits(masks, -1, 0));
+        assertFalse(board.fits(masks, -2, 0));
+        assertTrue(board.fits(masks, TetrisModel.DEFAULT_WIDTH - 3, 0));
+        assertFalse(board.fits(masks, TetrisModel.DEFAULT_WIDTH - 2, 0));
+        assertTrue(board.fits(masks, 0, TetrisModel.DEFAULT_HEIGHT - 3));
+        assertFalse(board.fits(masks, 0, TetrisModel.DEFAULT_HEIGHT - 2));
+    }
+
+    @Test
+    public void fitsAgainstCellsTest(){
+        int[] masks = Board.rowMasks(FigureFactory.J());
+        board.set(5, 3);
+        assertFalse(board.fits(masks, 2, 3));
+        assertTrue(board.fits(masks, 3, 3));
+    }
+
+    @Test
+    public void pasteTest(){
+        board.paste(Board.rowMasks(FigureFactory.J()), 0, 17);
+        assertTrue(board.isOccupied(17, 2));
+        assertTrue(board.isOccupied(19, 1));
+        assertFalse(board.isOccupied(19, 0));
+    }
+
+    @Test
+    public void fullRowTest(){
+        for (int col = 0; col < TetrisModel.DEFAULT_WIDTH; col++) board.set(19, col);
+        assertTrue(board.isRowFull(19));
+        board.clear(19, 4);
+        assertFalse(board.isRowFull(19));
+        board.clearRow(19);
+        assertTrue(board.isRowEmpty(19));
+    }
+
+    @Test
+    public void columnHeightsTest(){
+        assertEquals(0, board.columnHeight(3));
+        board.paste(Board.rowMasks(FigureFactory.J()), 0, 15);
+        assertEquals(5, board.columnHeight(2));
+        assertEquals(3, board.columnHeight(1));
+        assertEquals(0, board.columnHeight(0));
+        board.clear(15, 2);
+        assertEquals(4, board.columnHeight(2));
+        board.moveRow(17, 19);
+        assertEquals(1, board.columnHeight(1));
+    }
+
+    @Test
+    public void dropRowTest(){
+        Figure j = Figure.of(FigureFactory.J());
+        assertEquals(TetrisModel.DEFAULT_HEIGHT - 3, board.dropRow(j, 0, 0));
+        board.set(12, 2);
+        assertEquals(9, board.dropRow(j, 0, 0));
+        assertEquals(TetrisModel.DEFAULT_HEIGHT - 3, board.dropRow(j, 0, 13));
+    }
+
+    @Test
+    public void dropRowUnderOverhangTest(){
+        Figure j = Figure.of(FigureFactory.J());
+        board.set(5, 1);
+        board.set(5, 2);
+        assertEquals(TetrisModel.DEFAULT_HEIGHT - 3, board.dropRow(j, 0, 6));
+        board.set(18, 1);
+        assertEquals(15, board.dropRow(j, 0, 6));
+    }
+
+    @Test
+    public void widestBoardTest(){
+        Board wide = new Board(Board.MAX_WIDTH, 4);
+        for (int col = 0; col < Board.MAX_WIDTH; col++) wide.set(0, col);
+        assertTrue(wide.isRowFull(0));
+        assertThrows(IllegalArgumentException.class, () -> new Board(Board.MAX_WIDTH + 1, 4));
+    }
+
+    @Test
+    public void featuresTest(){
+        board.paste(Board.rowMasks(FigureFactory.J()), 0, 17);
+        int[] features = board.features();
+        BoardFeatures layout = board.features;
+        assertEquals(3, features[BoardFeatures.heightIndex(2)]);
+        assertEquals(1, features[BoardFeatures.heightIndex(1)]);
+        assertEquals(4, features[BoardFeatures.AGGREGATE_HEIGHT]);
+        assertEquals(0, features[BoardFeatures.HOLES]);
+        assertEquals(1 + 2 + 3, features[BoardFeatures.BUMPINESS]);
+        assertEquals(1, features[layout.wellIndex(0)]);
+        assertEquals(2 * TetrisModel.DEFAULT_HEIGHT + 6, features[BoardFeatures.ROW_TRANSITIONS]);
+
+        board.paste(new int[] {0b1111}, 0, 16);
+        assertSame(features, board.features());
+        assertEquals(3, features[layout.holesIndex(0)]);
+        assertEquals(2, features[layout.holesIndex(1)]);
+        assertEquals(0, features[layout.holesIndex(2)]);
+        assertEquals(8, features[BoardFeatures.HOLES]);
+        assertEquals(16, features[BoardFeatures.AGGREGATE_HEIGHT]);
+    }
+
+    @Test
+    public void incrementalFeaturesMatchRecomputeTest(){
+        java.util.Random random = new java.util.Random(11);
+        board.features();
+        for (int i = 0; i < 300; i++) {
+            Figure figure = FigureFactory.figure(random.nextInt(FigureFactory.FIGURE_TYPES), random.nextInt(Figure.ROTATIONS));
+            int x = random.nextInt(TetrisModel.DEFAULT_WIDTH) - figure.minCol;
+            if (!board.fits(figure, x, 0)) {
+                board.reset();
+                board.features();
+                continue;
+            }
+            int y = random.nextInt(3) == 0 ? random.nextInt(board.dropRow(figure, x, 0) + 1) : board.dropRow(figure, x, 0);
+            board.paste(figure, x, y);
+
+            Board fresh = new Board(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT);
+            for (int row = 0; row < TetrisModel.DEFAULT_HEIGHT; row++) {
+                for (int col = 0; col < TetrisModel.DEFAULT_WIDTH; col++) {
+                    if (board.isOccupied(row, col)) fresh.set(row, col);
+                }
+            }
+            assertArrayEquals(fresh.features(), board.features());
+        }
+    }
+
+    @Test
+    public void clearFullRowsAndCopyTest(){
+        for (int col = 0; col < TetrisModel.DEFAULT_WIDTH; col++) board.set(19, col);
+        board.set(18, 3);
+        Board copy = board.copy();
+        assertEquals(1, copy.clearFullRows());
+        assertTrue(copy.isOccupied(19, 3));
+        assertEquals(1, copy.columnHeight(3));
+        assertEquals(0, copy.columnHeight(0));
+        assertTrue(board.isRowFull(19));
+    }
+}
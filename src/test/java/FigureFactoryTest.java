@@ -4,7 +4,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.HashSet;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class FigureFactoryTest {
     private int[][] shape;
@@ -118,8 +118,31 @@ public class FigureFactoryTest {
         figureList.add(Arrays.deepToString(figureFactory.ZShape()));
         figureList.add(Arrays.deepToString(figureFactory.TShape()));
 
-        int[][] randomFigure = figureFactory.createNextFigure();
+        Figure randomFigure = figureFactory.createNextFigure();
 
-        assertTrue(figureList.contains(Arrays.deepToString(randomFigure)));
+        assertTrue(figureList.contains(Arrays.deepToString(randomFigure.cells())));
+    }
+
+    @Test
+    public void rotationTableTest() {
+        for (int type = 0; type < FigureFactory.FIGURE_TYPES; type++) {
+            Figure figure = FigureFactory.figure(type, 0);
+            for (int rotation = 0; rotation < Figure.ROTATIONS; rotation++) {
+                assertSame(FigureFactory.figure(type, rotation), figure);
+                assertEquals(4, figure.size());
+                figure = figure.rotateClockwise();
+            }
+            assertSame(FigureFactory.figure(type, 0), figure);
+        }
+    }
+
+    @Test
+    public void rotatedFigureTest() {
+        Figure rotated = Figure.of(FigureFactory.J()).rotateClockwise();
+        assertTrue(Arrays.deepEquals(FigureFactory.rotatedJ(), rotated.cells()));
+        assertEquals(1, rotated.minCol);
+        assertEquals(3, rotated.maxCol);
+        assertEquals(1, rotated.minRow);
+        assertEquals(2, rotated.maxRow);
     }
 }
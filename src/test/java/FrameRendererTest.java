@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameRendererTest {
+    @TempDir
+    Path dir;
+
+    private Path record(String name, long seed, int inputs) throws IOException {
+        Path path = dir.resolve(name + ".rec");
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(seed));
+        Simulator simulator = new Simulator(model);
+        Random random = new Random(seed);
+        Move[] moves = Move.values();
+        try (InputRecorder recorder = InputRecorder.open(path, model)) {
+            simulator.record(recorder);
+            for (int i = 0; i < inputs && !model.finished; i++) {
+                simulator.apply(moves[random.nextInt(moves.length)]);
+                simulator.tick(1);
+            }
+        }
+        return path;
+    }
+
+    @Test
+    public void rendersLockedCellsTest(){
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(3));
+        model.setCell(TetrisModel.DEFAULT_HEIGHT - 1, 0, 4);
+        FrameRenderer renderer = new FrameRenderer(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT);
+        BufferedImage frame = renderer.render(model.snapshot());
+        assertEquals(View.imageWidth(TetrisModel.DEFAULT_WIDTH), frame.getWidth());
+        int x = View.ORIGIN + View.BOX_SIZE / 2;
+        int y = View.ORIGIN + (TetrisModel.DEFAULT_HEIGHT - 1) * View.BOX_SIZE + View.BOX_SIZE / 2;
+        assertEquals(Tetris.COLORS[4].getRGB(), frame.getRGB(x, y));
+        assertEquals(Color.GRAY.getRGB(), frame.getRGB(View.ORIGIN, y));
+        assertSame(frame, renderer.render(model.snapshot()));
+    }
+
+    @Test
+    public void statesStepOneTickAtATimeTest() throws IOException {
+        Path replay = record("ticks", 5, 30);
+        try (Replayer replayer = Replayer.open(replay)) {
+            Iterator<GameState> states = FrameRenderer.states(replayer);
+            int frames = 0;
+            while (states.hasNext()) {
+                states.next();
+                frames++;
+            }
+            assertEquals(30, replayer.ticks());
+            assertEquals(replayer.ticks() + 2, frames);
+            assertThrows(NoSuchElementException.class, states::next);
+        }
+    }
+
+    @Test
+    public void writesPngSequenceTest() throws IOException {
+        Path replay = record("png", 7, 30);
+        Path out = dir.resolve("frames");
+        int frames = FrameRenderer.renderReplay(replay, out, FrameRenderer.Format.PNG, 50);
+        assertTrue(frames > 1);
+        try (var files = Files.list(out)) {
+            assertEquals(frames, files.count());
+        }
+        BufferedImage first = ImageIO.read(out.resolve("frame-00000.png").toFile());
+        assertEquals(View.imageHeight(TetrisModel.DEFAULT_HEIGHT), first.getHeight());
+    }
+
+    @Test
+    public void rendersReplaysInParallelAsGifsTest() throws IOException {
+        List<Path> replays = List.of(record("a", 1, 20), record("b", 2, 25), record("c", 3, 15));
+        Path out = dir.resolve("gifs");
+        Files.createDirectories(out);
+        FrameRenderer.renderAll(replays, out, FrameRenderer.Format.GIF, 40);
+        for (String name : List.of("a", "b", "c")) {
+            try (ImageInputStream input = ImageIO.createImageInputStream(out.resolve(name + ".gif").toFile())) {
+                ImageReader reader = ImageIO.getImageReaders(input).next();
+                reader.setInput(input);
+                assertTrue(reader.getNumImages(true) > 1);
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameHostTest {
+    private GameHost host;
+
+    @BeforeEach
+    public void setUp(){
+        host = new GameHost(2);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        host.close();
+    }
+
+    private static TetrisModel newModel(){
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER);
+        model.level = 1;
+        return model;
+    }
+
+    @Test
+    public void sessionsTickIndependentlyTest() throws InterruptedException {
+        CountDownLatch moved = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            TetrisModel model = newModel();
+            model.addListener(new ModelListener() {
+                boolean counted = false;
+
+                @Override
+                public void onChange(TetrisModel tetrisModel) {
+                    if (!counted) {
+                        counted = true;
+                        moved.countDown();
+                    }
+                }
+
+                @Override
+                public void over(TetrisModel tetrisModel) {
+
+                }
+            });
+            host.open(model);
+        }
+        assertEquals(4, host.sessionCount());
+        assertTrue(moved.await(5, TimeUnit.SECONDS));
+    }
+
+    private void survivesThrowingTask() throws InterruptedException {
+        TetrisModel model = newModel();
+        model.paused = true;
+        Session faulty = host.open(model);
+        host.open(newModel());
+        Session neighbour = host.open(newModel());
+        faulty.execute(() -> {
+            throw new IllegalStateException("task failure");
+        });
+        CountDownLatch neighbourServiced = new CountDownLatch(1);
+        neighbour.execute(neighbourServiced::countDown);
+        assertTrue(neighbourServiced.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch faultyServiced = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        do {
+            faulty.execute(faultyServiced::countDown);
+        } while (!faultyServiced.await(10, TimeUnit.MILLISECONDS) && System.nanoTime() < deadline);
+        assertEquals(0, faultyServiced.getCount());
+    }
+
+    @Test
+    public void shardSurvivesThrowingTaskTest() throws InterruptedException {
+        survivesThrowingTask();
+    }
+
+    @Test
+    public void virtualThreadSurvivesThrowingTaskTest() throws InterruptedException {
+        host.setMode(GameHost.Mode.VIRTUAL);
+        survivesThrowingTask();
+    }
+
+    @Test
+    public void inputsRunOnShardTest() throws InterruptedException {
+        TetrisModel model = newModel();
+        model.paused = true;
+        Session session = host.open(model);
+        int x = model.position.x();
+        session.submit(Move.MOVE_LEFT);
+        CountDownLatch done = new CountDownLatch(1);
+        session.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(x - 1, model.position.x());
+    }
+
+    @Test
+    public void virtualModeTest() throws InterruptedException {
+        host.setMode(GameHost.Mode.VIRTUAL);
+        TetrisModel model = newModel();
+        model.paused = true;
+        Session session = host.open(model);
+        CountDownLatch done = new CountDownLatch(1);
+        session.execute(() -> {
+            assertTrue(Thread.currentThread().isVirtual());
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static boolean runsOnVirtualThread(Session session, boolean virtual) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            CountDownLatch probe = new CountDownLatch(1);
+            boolean[] result = new boolean[1];
+            session.execute(() -> {
+                result[0] = Thread.currentThread().isVirtual();
+                probe.countDown();
+            });
+            assertTrue(probe.await(5, TimeUnit.SECONDS));
+            if (result[0] == virtual) return true;
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    @Test
+    public void switchModeAtRuntimeTest() throws InterruptedException {
+        TetrisModel model = newModel();
+        model.paused = true;
+        Session session = host.open(model);
+        int x = model.position.x();
+
+        host.setMode(GameHost.Mode.VIRTUAL);
+        session.submit(Move.MOVE_LEFT);
+        assertTrue(runsOnVirtualThread(session, true));
+
+        host.setMode(GameHost.Mode.PLATFORM);
+        session.submit(Move.MOVE_LEFT);
+        assertTrue(runsOnVirtualThread(session, false));
+        assertEquals(x - 2, model.position.x());
+    }
+
+    @Test
+    public void closeSessionTest(){
+        Session session = host.open(newModel());
+        assertSame(session, host.session(session.id()));
+        host.close(session);
+        assertNull(host.session(session.id()));
+        assertEquals(0, host.sessionCount());
+    }
+
+    @Test
+    public void publishesStateBeforeListenersTest() throws InterruptedException {
+        TetrisModel model = newModel();
+        model.paused = true;
+        Session session = host.open(model);
+        GameState initial = session.state();
+        GameState[] seen = new GameState[1];
+        CountDownLatch notified = new CountDownLatch(1);
+        model.addListener(new ModelListener() {
+            @Override
+            public void onChange(TetrisModel tetrisModel) {
+                seen[0] = session.state();
+                notified.countDown();
+            }
+
+            @Override
+            public void over(TetrisModel tetrisModel) {
+
+            }
+        });
+        session.submit(Move.MOVE_LEFT);
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        assertNotSame(initial, seen[0]);
+        assertEquals(initial.position().x() - 1, seen[0].position().x());
+    }
+
+    @Test
+    public void publishesPauseTest() throws InterruptedException {
+        TetrisModel model = newModel();
+        model.paused = true;
+        Session session = host.open(model);
+        CountDownLatch notified = new CountDownLatch(1);
+        model.addListener(new ModelListener() {
+            @Override
+            public void onChange(TetrisModel tetrisModel, int changes) {
+                if (ModelChange.has(changes, ModelChange.PAUSED)) notified.countDown();
+            }
+
+            @Override
+            public void over(TetrisModel tetrisModel) {
+
+            }
+        });
+        session.pause();
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        assertFalse(session.state().paused());
+    }
+
+    @Test
+    public void commandQueueKeepsEveryProducerInOrderTest() throws InterruptedException {
+        CommandQueue queue = new CommandQueue();
+        int producers = 4;
+        int perProducer = 10_000;
+        Thread[] threads = new Thread[producers];
+        int[][] order = new int[producers][1];
+        boolean[] inOrder = {true};
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int expected = i;
+                    queue.offer(() -> {
+                        if (order[producer][0]++ != expected) inOrder[0] = false;
+                    });
+                }
+            });
+            threads[p].start();
+        }
+        int ran = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (ran < producers * perProducer && System.nanoTime() < deadline) {
+            Runnable command = queue.poll();
+            if (command == null) continue;
+            command.run();
+            ran++;
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(producers * perProducer, ran);
+        assertTrue(inOrder[0]);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void subMillisecondGravityTest(){
+        AtomicInteger rows = new AtomicInteger();
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER) {
+            @Override
+            public void infinite() {
+                rows.incrementAndGet();
+            }
+        };
+        Session session = new Session(0, model, new SessionDriver() {
+            @Override
+            public void wake(Session session) {
+            }
+
+            @Override
+            public void stop() {
+            }
+        });
+        session.setGravityNanos(100_000);
+        session.runTasks();
+        assertEquals(100_000, model.gravityNanos());
+        long now = System.nanoTime();
+        session.tick(now);
+        rows.set(0);
+        for (int frame = 0; frame < 400; frame++) {
+            now += 250_000;
+            session.tick(now);
+        }
+        assertTrue(rows.get() == 1000 || rows.get() == 1001, "rows: " + rows.get());
+
+        rows.set(0);
+        session.tick(now + 5_000_000_000L);
+        assertTrue(rows.get() <= Session.MAX_CATCH_UP_NANOS / 100_000 + 1, "rows: " + rows.get());
+    }
+}
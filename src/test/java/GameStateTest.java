@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateTest {
+    private TetrisModel model;
+
+    @BeforeEach
+    public void setUp(){
+        model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(21));
+    }
+
+    private void play(int pieces) {
+        PlacementSearch search = new PlacementSearch();
+        for (int i = 0; i < pieces && !model.finished; i++) {
+            search.bestMoves(model).forEach(move -> move.applyTo(model));
+            model.stay();
+        }
+    }
+
+    @Test
+    public void snapshotIsImmutableTest(){
+        play(5);
+        GameState state = model.snapshot();
+        int bottom = TetrisModel.DEFAULT_HEIGHT - 1;
+        int color = state.cell(bottom, 0);
+        model.setCell(bottom, 0, color == 0 ? 4 : 0);
+        model.updateScore(50);
+        assertEquals(color, state.cell(bottom, 0));
+        assertNotEquals(model.score, state.score());
+        assertNotEquals(state, model.snapshot());
+    }
+
+    @Test
+    public void searchesFromSnapshotTest(){
+        play(8);
+        GameState state = model.snapshot();
+        assertEquals(model.figureFactory.source().lookahead(), state.previewCount());
+        for (int i = 0; i < state.previewCount(); i++) assertSame(model.nextFigure(i), state.preview(i));
+
+        Board board = state.board();
+        for (int row = 0; row < TetrisModel.DEFAULT_HEIGHT; row++) {
+            for (int col = 0; col < TetrisModel.DEFAULT_WIDTH; col++) {
+                assertEquals(model.cell(row, col) != 0, board.isOccupied(row, col));
+            }
+        }
+
+        PlacementSearch search = new PlacementSearch();
+        assertEquals(search.best(model), search.best(state));
+        assertEquals(state, model.snapshot());
+    }
+
+    @Test
+    public void restoreRoundTripTest(){
+        play(12);
+        model.levelUp();
+        model.pause();
+        GameState state = model.snapshot();
+        for (int row = 0; row < TetrisModel.DEFAULT_HEIGHT; row++) {
+            for (int col = 0; col < TetrisModel.DEFAULT_WIDTH; col++) {
+                assertEquals(model.cell(row, col), state.cell(row, col));
+            }
+        }
+
+        model.pause();
+        play(8);
+        model.restore(state);
+        assertEquals(state, model.snapshot());
+        assertTrue(model.paused);
+        assertEquals(state.score(), model.score);
+        assertEquals(state.position(), model.position);
+        for (int col = 0; col < TetrisModel.DEFAULT_WIDTH; col++) {
+            int height = 0;
+            for (int row = TetrisModel.DEFAULT_HEIGHT - 1; row >= 0; row--) {
+                if (state.cell(row, col) != 0) height = TetrisModel.DEFAULT_HEIGHT - row;
+            }
+            assertEquals(height, model.columnHeight(col));
+        }
+    }
+
+    @Test
+    public void restoredGameReplaysIdenticallyTest(){
+        play(3);
+        GameState state = model.snapshot();
+        play(20);
+        GameState first = model.snapshot();
+
+        model.restore(state);
+        play(20);
+        assertEquals(first, model.snapshot());
+    }
+
+    @Test
+    public void restoreRejectsOtherSizesTest(){
+        TetrisModel small = new TetrisModel(6, 12, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(1));
+        assertThrows(IllegalArgumentException.class, () -> small.restore(model.snapshot()));
+    }
+}
@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputStateTest {
+    private static final long MS = 1_000_000L;
+
+    private InputState input;
+    private List<Move> moves;
+
+    @BeforeEach
+    public void setUp(){
+        input = new InputState(100 * MS, 20 * MS);
+        moves = new ArrayList<>();
+    }
+
+    @Test
+    public void keyRepeatIsIgnoredTest(){
+        assertTrue(input.press(Move.MOVE_LEFT));
+        assertFalse(input.press(Move.MOVE_LEFT));
+        assertFalse(input.press(Move.MOVE_LEFT));
+        input.apply(0, moves::add);
+        input.apply(50 * MS, moves::add);
+        assertEquals(List.of(Move.MOVE_LEFT), moves);
+    }
+
+    @Test
+    public void autoShiftAfterDelayTest(){
+        input.press(Move.MOVE_RIGHT);
+        input.apply(0, moves::add);
+        input.apply(99 * MS, moves::add);
+        assertEquals(1, moves.size());
+        input.apply(100 * MS, moves::add);
+        assertEquals(2, moves.size());
+        input.apply(165 * MS, moves::add);
+        assertEquals(5, moves.size());
+        input.release(Move.MOVE_RIGHT);
+        input.apply(500 * MS, moves::add);
+        assertEquals(5, moves.size());
+        assertTrue(moves.stream().allMatch(move -> move == Move.MOVE_RIGHT));
+    }
+
+    @Test
+    public void quickTapStillMovesTest(){
+        input.press(Move.MOVE_LEFT);
+        input.release(Move.MOVE_LEFT);
+        input.press(Move.ROTATE);
+        input.release(Move.ROTATE);
+        assertFalse(input.isRepeating());
+        input.apply(0, moves::add);
+        assertEquals(List.of(Move.ROTATE, Move.MOVE_LEFT), moves);
+    }
+
+    @Test
+    public void releasingShiftFallsBackToOtherDirectionTest(){
+        input.press(Move.MOVE_LEFT);
+        input.apply(0, moves::add);
+        input.press(Move.MOVE_RIGHT);
+        input.apply(10 * MS, moves::add);
+        input.release(Move.MOVE_RIGHT);
+        input.apply(20 * MS, moves::add);
+        assertEquals(List.of(Move.MOVE_LEFT, Move.MOVE_RIGHT, Move.MOVE_LEFT), moves);
+        assertTrue(input.isRepeating());
+    }
+
+    @Test
+    public void zeroRepeatRateIsBoundedTest(){
+        InputState instant = new InputState(0, 0);
+        instant.press(Move.MOVE_LEFT);
+        instant.apply(0, moves::add);
+        assertEquals(1 + Board.MAX_WIDTH, moves.size());
+    }
+
+    @Test
+    public void autoRepeatPairKeepsKeyHeldTest(){
+        assertTrue(input.press(Move.MOVE_LEFT, 1000));
+        input.apply(0, moves::add);
+        input.release(Move.MOVE_LEFT, 1040, 40 * MS);
+        assertFalse(input.press(Move.MOVE_LEFT, 1040));
+        input.apply(41 * MS, moves::add);
+        input.release(Move.MOVE_LEFT, 1080, 80 * MS);
+        input.apply(81 * MS, moves::add);
+        assertFalse(input.press(Move.MOVE_LEFT, 1080));
+        input.apply(100 * MS, moves::add);
+        assertEquals(2, moves.size());
+        assertTrue(input.isRepeating());
+    }
+
+    @Test
+    public void deferredReleaseTakesEffectAfterGraceTest(){
+        input.press(Move.MOVE_RIGHT, 1000);
+        input.apply(0, moves::add);
+        input.release(Move.MOVE_RIGHT, 1010, 10 * MS);
+        input.apply(10 * MS + InputState.RELEASE_GRACE_NANOS, moves::add);
+        assertFalse(input.isRepeating());
+        input.apply(500 * MS, moves::add);
+        assertEquals(List.of(Move.MOVE_RIGHT), moves);
+        assertTrue(input.press(Move.MOVE_RIGHT, 1600));
+    }
+
+    @Test
+    public void quickRepressIsNewEdgeTest(){
+        input.press(Move.ROTATE, 1000);
+        input.release(Move.ROTATE, 1010, 10 * MS);
+        assertTrue(input.press(Move.ROTATE, 1012));
+        input.apply(12 * MS, moves::add);
+        assertEquals(List.of(Move.ROTATE), moves);
+    }
+}
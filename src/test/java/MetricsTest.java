@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @Test
+    public void histogramPercentilesTest(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) histogram.record(100);
+        histogram.record(1_000_000);
+        long[] buckets = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(buckets);
+        assertEquals(127, LatencyHistogram.percentile(buckets, 0.5));
+        assertEquals(127, LatencyHistogram.percentile(buckets, 0.99));
+        assertEquals((1 << 20) - 1, LatencyHistogram.percentile(buckets, 0.999));
+        assertEquals(1_000_000, histogram.max());
+        assertEquals(99 * 100 + 1_000_000, histogram.total());
+    }
+
+    @Test
+    public void inputToRepaintNeedsPublishedChangeTest(){
+        SessionMetrics metrics = new SessionMetrics();
+        metrics.inputApplied(100);
+        metrics.published(false);
+        metrics.rendered(500, 600);
+        assertEquals(0, count(metrics.inputToRepaint));
+
+        metrics.inputApplied(100);
+        metrics.published(true);
+        metrics.rendered(500, 600);
+        assertEquals(1, count(metrics.inputToRepaint));
+        assertEquals(500, metrics.inputToRepaint.max());
+        assertEquals(2, count(metrics.render));
+    }
+
+    @Test
+    public void sessionsPublishOverJmxTest() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try (GameHost host = new GameHost(1)) {
+            long before = (Long) server.getAttribute(GameMetrics.objectName("tick"), "Count");
+            TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER);
+            model.level = 1;
+            Session session = host.open(model);
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (count(session.metrics().tick) < 5 && System.nanoTime() < deadline) Thread.sleep(1);
+            assertTrue((Long) server.getAttribute(GameMetrics.objectName("tick"), "Count") >= before + 5);
+            assertTrue((Long) server.getAttribute(GameMetrics.objectName("dispatch"), "MaxNanos") >= 0);
+
+            host.close(session);
+            while (model.metrics != null && System.nanoTime() < deadline) Thread.sleep(1);
+            assertNull(model.metrics);
+            long retired = (Long) server.getAttribute(GameMetrics.objectName("tick"), "Count");
+            assertTrue(retired >= before + 5);
+        }
+    }
+
+    private static long count(LatencyHistogram histogram) {
+        long[] buckets = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(buckets);
+        long count = 0;
+        for (long bucket : buckets) count += bucket;
+        return count;
+    }
+}
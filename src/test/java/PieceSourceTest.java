@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PieceSourceTest {
+
+    @Test
+    public void sameSeedSameSequenceTest(){
+        PieceSource first = PieceSource.random(42);
+        PieceSource second = PieceSource.random(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    public void randomRangeTest(){
+        PieceSource source = PieceSource.random(1);
+        boolean[] seen = new boolean[FigureFactory.FIGURE_TYPES];
+        for (int i = 0; i < 1000; i++) {
+            int piece = source.next();
+            assertTrue(piece >= 0 && piece < FigureFactory.FIGURE_TYPES);
+            seen[piece] = true;
+        }
+        for (boolean type : seen) assertTrue(type);
+    }
+
+    @Test
+    public void bagTest(){
+        PieceSource source = PieceSource.bag(7);
+        for (int bag = 0; bag < 100; bag++) {
+            boolean[] seen = new boolean[FigureFactory.FIGURE_TYPES];
+            for (int i = 0; i < FigureFactory.FIGURE_TYPES; i++) {
+                int piece = source.next();
+                assertFalse(seen[piece]);
+                seen[piece] = true;
+            }
+        }
+    }
+
+    @Test
+    public void peekTest(){
+        PieceSource source = PieceSource.bag(3);
+        int[] preview = new int[PieceSource.DEFAULT_LOOKAHEAD];
+        for (int i = 0; i < preview.length; i++) preview[i] = source.peek(i);
+        for (int piece : preview) assertEquals(piece, source.next());
+        assertThrows(IllegalArgumentException.class, () -> source.peek(source.lookahead()));
+    }
+
+    @Test
+    public void lookaheadTest(){
+        assertEquals(7, new BagPieceSource(1, 7).lookahead());
+        assertThrows(IllegalArgumentException.class, () -> new BagPieceSource(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RandomPieceSource(1, PieceSource.MAX_LOOKAHEAD + 1));
+
+        PieceSource source = new BagPieceSource(9, PieceSource.MAX_LOOKAHEAD);
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, source);
+        source.peek(PieceSource.MAX_LOOKAHEAD - 1);
+        GameState state = model.snapshot();
+        int[] preview = new int[PieceSource.MAX_LOOKAHEAD];
+        for (int i = 0; i < preview.length; i++) preview[i] = source.next();
+        model.restore(state);
+        for (int piece : preview) assertEquals(piece, source.next());
+    }
+
+    @Test
+    public void seededModelTest(){
+        TetrisModel first = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(5));
+        TetrisModel second = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(5));
+        for (int i = 0; i < 50; i++) {
+            assertSame(first.figure, second.figure);
+            assertSame(first.nextFigure(0), second.nextFigure(0));
+            first.initFigure();
+            second.initFigure();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlacementSearchTest {
+    private TetrisModel model;
+
+    @BeforeEach
+    public void setUp(){
+        model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.random(1));
+    }
+
+    @Test
+    public void placementCountsTest(){
+        PlacementSearch search = new PlacementSearch();
+        model.setFigure(FigureFactory.figure(0, 0));
+        assertEquals(9, search.placements(model).size());
+        model.setFigure(FigureFactory.figure(3, 0));
+        assertEquals(17, search.placements(model).size());
+        model.setFigure(FigureFactory.figure(6, 0));
+        assertEquals(34, search.placements(model).size());
+    }
+
+    @Test
+    public void movesReachPlacementTest(){
+        PlacementSearch search = new PlacementSearch();
+        for (int type = 0; type < FigureFactory.FIGURE_TYPES; type++) {
+            model.setFigure(FigureFactory.figure(type, 0));
+            Pair start = model.position;
+            for (Placement placement : search.placements(model)) {
+                model.setFigure(FigureFactory.figure(type, 0));
+                model.position = start;
+                placement.applyTo(model);
+                assertSame(placement.figure(), model.figure);
+                assertEquals(new Pair(placement.x(), placement.y()), model.position);
+            }
+        }
+    }
+
+    @Test
+    public void bestPlacementFillsWellTest(){
+        int bottom = TetrisModel.DEFAULT_HEIGHT - 1;
+        for (int row = bottom - 3; row <= bottom; row++) {
+            for (int col = 0; col < TetrisModel.DEFAULT_WIDTH - 1; col++) model.setCell(row, col, 1);
+        }
+        model.setFigure(FigureFactory.figure(3, 0));
+        List<Move> moves = new PlacementSearch().bestMoves(model);
+        assertEquals(Move.DROP, moves.get(moves.size() - 1));
+        moves.forEach(move -> move.applyTo(model));
+        model.stay();
+        assertEquals(4, model.clearedCount);
+        assertTrue(model.isRowFullOfZeros(bottom));
+    }
+
+    @Test
+    public void parallelMatchesSequentialTest(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PlacementSearch sequential = new PlacementSearch(Heuristic.DEFAULT, pool, Integer.MAX_VALUE);
+            PlacementSearch parallel = new PlacementSearch(Heuristic.DEFAULT, pool, 1);
+            java.util.Random random = new java.util.Random(5);
+            for (int i = 0; i < 60; i++) {
+                model.setCell(8 + random.nextInt(12), random.nextInt(TetrisModel.DEFAULT_WIDTH), 1);
+            }
+            model.setFigure(FigureFactory.figure(6, 0));
+            assertEquals(sequential.placements(model), parallel.placements(model));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void replayRebuildsGameTest() throws IOException {
+        Path path = dir.resolve("game.rec");
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(2024));
+        Simulator simulator = new Simulator(model);
+        Random random = new Random(1);
+        Move[] moves = Move.values();
+        try (InputRecorder recorder = InputRecorder.open(path, model)) {
+            simulator.record(recorder);
+            while (!model.finished) {
+                simulator.apply(moves[random.nextInt(moves.length)]);
+                simulator.tick(random.nextInt(4));
+            }
+        }
+
+        TetrisModel replayed = Replayer.replay(path);
+        assertTrue(replayed.finished);
+        assertEquals(model.score, replayed.score);
+        assertEquals(model.position, replayed.position);
+        assertSame(model.figure, replayed.figure);
+        for (int row = 0; row < TetrisModel.DEFAULT_HEIGHT; row++) {
+            for (int col = 0; col < TetrisModel.DEFAULT_WIDTH; col++) {
+                assertEquals(model.cell(row, col), replayed.cell(row, col));
+            }
+        }
+        long header = SaveGame.save(new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(2024))).length;
+        assertTrue(Files.size(path) < header + simulator.inputs() * 2 + 32);
+    }
+
+    @Test
+    public void recordingStartsMidGameTest() throws IOException {
+        Path path = dir.resolve("late.rec");
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(99));
+        Simulator simulator = new Simulator(model);
+        for (int i = 0; i < 5; i++) simulator.apply(Move.DROP);
+        simulator.apply(Move.MOVE_LEFT);
+        try (InputRecorder recorder = InputRecorder.open(path, model)) {
+            simulator.record(recorder);
+            for (int i = 0; i < 5; i++) {
+                simulator.apply(Move.MOVE_RIGHT);
+                simulator.apply(Move.DROP);
+            }
+        }
+
+        TetrisModel replayed = Replayer.replay(path);
+        assertEquals(model.snapshot(), replayed.snapshot());
+    }
+
+    @Test
+    public void closingSessionsFinishRecordingsTest() throws Exception {
+        Path first = dir.resolve("first.rec");
+        Path second = dir.resolve("second.rec");
+        TetrisModel firstModel = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(5));
+        TetrisModel secondModel = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(6));
+        firstModel.paused = true;
+        secondModel.paused = true;
+        GameHost host = new GameHost(1);
+        try {
+            Session closed = host.open(firstModel);
+            Session live = host.open(secondModel);
+            closed.record(first).get(5, TimeUnit.SECONDS);
+            live.record(second).get(5, TimeUnit.SECONDS);
+            closed.submit(Move.MOVE_LEFT);
+            live.submit(Move.DROP);
+            host.close(closed);
+        } finally {
+            host.close();
+        }
+        assertEquals(firstModel.snapshot(), Replayer.replay(first).snapshot());
+        assertEquals(secondModel.snapshot(), Replayer.replay(second).snapshot());
+    }
+
+    @Test
+    public void rejectsUnsaveableSessionsOnCallerTest() throws Exception {
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(5));
+        model.setFigure(Figure.of(new int[][] {{1, 1}, {1, 0}}));
+        model.paused = true;
+        try (GameHost host = new GameHost(1)) {
+            Session session = host.open(model);
+            assertThrows(IllegalArgumentException.class, () -> session.record(dir.resolve("custom.rec")));
+            CountDownLatch serviced = new CountDownLatch(1);
+            session.execute(serviced::countDown);
+            assertTrue(serviced.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void rejectsCustomSourcesTest() {
+        PieceSource custom = new PieceSource(1, PieceSource.DEFAULT_LOOKAHEAD) {
+            @Override
+            protected int generate() {
+                return 0;
+            }
+        };
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, custom);
+        Path path = dir.resolve("custom.rec");
+        assertThrows(IllegalArgumentException.class, () -> InputRecorder.open(path, model));
+    }
+
+    @Test
+    public void rejectsOtherFilesTest() throws IOException {
+        Path path = dir.resolve("other.bin");
+        Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> Replayer.replay(path));
+    }
+}
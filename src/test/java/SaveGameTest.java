@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveGameTest {
+    @TempDir
+    Path dir;
+
+    private static void play(TetrisModel model, int pieces) {
+        PlacementSearch search = new PlacementSearch();
+        for (int i = 0; i < pieces && !model.finished; i++) {
+            search.bestMoves(model).forEach(move -> move.applyTo(model));
+            model.stay();
+        }
+    }
+
+    @Test
+    public void saveAndLoadRoundTripTest() throws IOException {
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(77));
+        play(model, 25);
+        model.slideDown();
+        model.levelUp();
+        model.pause();
+
+        Path path = dir.resolve("game.sav");
+        SaveGame.save(model, path);
+        TetrisModel loaded = SaveGame.load(path);
+        assertEquals(model.snapshot(), loaded.snapshot());
+        assertTrue(loaded.paused);
+        assertEquals(model.figureFactory.source().seed(), loaded.figureFactory.source().seed());
+
+        model.pause();
+        loaded.pause();
+        play(model, 20);
+        play(loaded, 20);
+        assertEquals(model.snapshot(), loaded.snapshot());
+    }
+
+    @Test
+    public void randomSourceRoundTripTest() throws IOException {
+        TetrisModel model = new TetrisModel(7, 13, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.random(5));
+        play(model, 10);
+        TetrisModel loaded = SaveGame.load(SaveGame.save(model));
+        assertEquals(model.snapshot(), loaded.snapshot());
+        assertEquals(model.nextFigure(0), loaded.nextFigure(0));
+    }
+
+    @Test
+    public void savesPublishedSessionStateTest() throws IOException {
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(12));
+        play(model, 6);
+        model.paused = true;
+        try (GameHost host = new GameHost(1)) {
+            Session session = host.open(model);
+            assertEquals(session.state(), SaveGame.load(SaveGame.save(session)).snapshot());
+        }
+    }
+
+    @Test
+    public void saveIsCompactTest(){
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(1));
+        assertTrue(SaveGame.save(model).length < 110);
+        for (int row = 10; row < TetrisModel.DEFAULT_HEIGHT; row++) {
+            for (int col = 0; col < TetrisModel.DEFAULT_WIDTH - 1; col++) model.setCell(row, col, 1 + (row + col) % 7);
+        }
+        assertTrue(SaveGame.save(model).length < 150);
+    }
+
+    @Test
+    public void keepsLookaheadTest() throws IOException {
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, new BagPieceSource(4, 15));
+        play(model, 3);
+        TetrisModel loaded = SaveGame.load(SaveGame.save(model));
+        assertEquals(15, loaded.figureFactory.source().lookahead());
+        assertEquals(model.snapshot(), loaded.snapshot());
+    }
+
+    @Test
+    public void refusesCustomSourcesTest(){
+        PieceSource custom = new PieceSource(1, PieceSource.DEFAULT_LOOKAHEAD) {
+            @Override
+            protected int generate() {
+                return 3;
+            }
+        };
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, custom);
+        assertThrows(IllegalArgumentException.class, () -> SaveGame.save(model));
+    }
+
+    @Test
+    public void rejectsUnrepresentableBoardsTest() throws IOException {
+        TetrisModel tallest = new TetrisModel(4, SaveGame.MAX_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(1));
+        assertEquals(tallest.snapshot(), SaveGame.load(SaveGame.save(tallest)).snapshot());
+        TetrisModel tooTall = new TetrisModel(4, SaveGame.MAX_HEIGHT + 1, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(1));
+        assertThrows(IllegalArgumentException.class, () -> SaveGame.save(tooTall));
+
+        int width = Board.MAX_WIDTH;
+        TetrisModel model = new TetrisModel(width, SaveGame.MAX_OCCUPIED / width + 8, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(1));
+        int height = model.size().y();
+        for (int index = 0; index < SaveGame.MAX_OCCUPIED; index++) {
+            model.setCell(height - 1 - index / width, index % width, 1 + index % 7);
+        }
+        assertEquals(model.snapshot(), SaveGame.load(SaveGame.save(model)).snapshot());
+        model.setCell(height - 1 - SaveGame.MAX_OCCUPIED / width, SaveGame.MAX_OCCUPIED % width, 2);
+        assertThrows(IllegalArgumentException.class, () -> SaveGame.save(model));
+    }
+
+    @Test
+    public void rejectsBadDimensionsTest(){
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(1));
+        ByteBuffer bytes = ByteBuffer.wrap(SaveGame.save(model));
+        int height = Integer.BYTES + 2 + Long.BYTES + 1 + Short.BYTES;
+        bytes.putShort(height, (short) -1);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.array(), 0, bytes.capacity() - Integer.BYTES);
+        bytes.putInt(bytes.capacity() - Integer.BYTES, (int) crc.getValue());
+        IOException error = assertThrows(IOException.class, () -> SaveGame.load(bytes.array()));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+    }
+
+    @Test
+    public void rejectsCorruptedFilesTest(){
+        TetrisModel model = new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER, PieceSource.bag(1));
+        byte[] bytes = SaveGame.save(model);
+        bytes[bytes.length / 2] ^= 0x10;
+        assertThrows(IOException.class, () -> SaveGame.load(bytes));
+        assertThrows(IOException.class, () -> SaveGame.load(new byte[] {1, 2, 3}));
+    }
+}
@@ -0,0 +1,39 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+    private Simulator simulator;
+
+    @BeforeEach
+    public void setUp(){
+        simulator = new Simulator(new TetrisModel(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT, TetrisModel.DEFAULT_COLOR_NUMBER));
+    }
+
+    @Test
+    public void tickTest(){
+        Pair old = simulator.model().position;
+        assertEquals(3, simulator.tick(3));
+        assertEquals(old.y() + 3, simulator.model().position.y());
+        assertEquals(3, simulator.ticks());
+    }
+
+    @Test
+    public void stepTest(){
+        Pair old = simulator.model().position;
+        simulator.step(Move.MOVE_LEFT);
+        assertEquals(new Pair(old.x() - 1, old.y() + 1), simulator.model().position);
+        assertEquals(1, simulator.inputs());
+        assertEquals(1, simulator.ticks());
+    }
+
+    @Test
+    public void runUntilGameOverTest(){
+        long ticks = simulator.runUntilGameOver(1_000_000);
+        assertTrue(simulator.model().finished);
+        assertTrue(ticks < 1_000_000);
+        assertEquals(0, simulator.tick(10));
+        assertTrue(simulator.ticksPerSecond() > 0);
+    }
+}
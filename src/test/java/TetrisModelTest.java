@@ -19,8 +19,7 @@ public class TetrisModelTest {
         Pair pair = model.size();
         assertEquals(pair.x(), 10);
         assertEquals(pair.y(), 20);
-        assertNotNull(model.field);
-        assertEquals(model.field.length, pair.y());
+        assertEquals(0, model.cell(pair.y() - 1, pair.x() - 1));
     }
 
     @Test
@@ -30,7 +29,7 @@ public class TetrisModelTest {
 
     @Test
     public void TestFigure(){
-        int[][] figure = model.figure;
+        Figure figure = model.figure;
         assertNotNull(figure);
     }
 
@@ -56,8 +55,10 @@ public class TetrisModelTest {
 
     @Test
     public void testFigureNotOverlapFieldCellsAfterSlideDown(){
-        model.field[2][model.size().x() / 2] = 1;
+        model.setFigure(FigureFactory.figure(0, 0));
+        model.setCell(4, model.size().x() / 2, 1);
         model.slideDown();
+        assertEquals(1, model.position.y());
         assertTrue(model.isNewFigurePositionValid(model.position));
     }
 
@@ -72,10 +73,10 @@ public class TetrisModelTest {
 
     @Test
     public void rotateTest(){
-        model.figure = FigureFactory.J();
+        model.setFigure(Figure.of(FigureFactory.J()));
         model.rotate();
         int[][] rotated = FigureFactory.rotatedJ();
-        Arrays.equals(model.figure, rotated);
+        assertTrue(Arrays.deepEquals(model.figure.cells(), rotated));
     }
 
     @Test
@@ -92,6 +93,28 @@ public class TetrisModelTest {
         assertEquals(oldPos.x() + 1, model.position.x());
     }
 
+    @Test
+    public void dropMatchesSteppingTest(){
+        java.util.Random random = new java.util.Random(3);
+        for (int i = 0; i < 200; i++) {
+            int row = 4 + random.nextInt(TetrisModel.DEFAULT_HEIGHT - 4);
+            model.setCell(row, random.nextInt(TetrisModel.DEFAULT_WIDTH), 1);
+        }
+        for (int type = 0; type < FigureFactory.FIGURE_TYPES; type++) {
+            model.setFigure(FigureFactory.figure(type, 0));
+            for (int x = -2; x < TetrisModel.DEFAULT_WIDTH; x++) {
+                Pair start = new Pair(x, 0);
+                if (!model.isNewFigurePositionValid(start)) continue;
+                int expected = 0;
+                while (model.isNewFigurePositionValid(new Pair(x, expected + 1))) expected++;
+                model.position = start;
+                assertEquals(new Pair(x, expected), model.ghostPosition());
+                model.drop();
+                assertEquals(new Pair(x, expected), model.position);
+            }
+        }
+    }
+
     @Test
     public void fullRowOnesTest(){
         assertFalse(model.isRowFullOfOnes(1));
@@ -99,23 +122,23 @@ public class TetrisModelTest {
     }
 
     @Test
-    public void ShiftTest(){
-        int[][] field = {
-                {0, 0, 0, 0},
-                {1, 1, 1, 1},
-                {0, 1, 1, 0},
-                {0, 0, 0, 0}
-        };
-
-        field = model.shiftRowsDown(field);
+    public void pasteFigureTest(){
+        model.setFigure(Figure.of(FigureFactory.J()));
+        model.pasteFigure();
+        Pair pos = model.position;
+        assertEquals(2, model.cell(pos.y(), pos.x() + 2));
+        assertEquals(2, model.cell(pos.y() + 2, pos.x() + 1));
+        assertFalse(model.checkAbsPos(pos.x() + 1, pos.y() + 2));
+        assertTrue(model.checkAbsPos(pos.x(), pos.y() + 2));
+    }
 
-        int[][] answer = {
-                {0, 0, 0, 0},
-                {0, 0, 0, 0},
-                {1, 1, 1, 1},
-                {0, 1, 1, 0}
-        };
-        Arrays.deepEquals(answer, field);
+    @Test
+    public void forEachFigureCellStopsEarlyTest(){
+        int[] visited = new int[1];
+        boolean completed = model.forEachFigureCell(0, 0, (col, row, value) -> ++visited[0] < 2);
+        assertFalse(completed);
+        assertEquals(2, visited[0]);
+        assertTrue(model.forEachFigureCell(0, 0, (col, row, value) -> value != 0));
     }
 
     @Test
@@ -135,6 +158,56 @@ public class TetrisModelTest {
         assertEquals(model.listeners.size(), 1);
     }
 
+    @Test
+    public void stayNotifiesOnceTest(){
+        int[] calls = new int[1];
+        int[] seen = new int[1];
+        model.drop();
+        model.addListener(new ModelListener() {
+            @Override
+            public void onChange(TetrisModel tetrisModel, int changes) {
+                calls[0]++;
+                seen[0] |= changes;
+            }
+
+            @Override
+            public void over(TetrisModel tetrisModel) {
+
+            }
+        });
+        model.stay();
+        assertEquals(1, calls[0]);
+        assertTrue(ModelChange.has(seen[0], ModelChange.CELLS_LOCKED));
+        assertTrue(ModelChange.has(seen[0], ModelChange.PIECE_MOVED));
+        assertTrue(ModelChange.has(seen[0], ModelChange.SCORE));
+        assertFalse(ModelChange.has(seen[0], ModelChange.ROWS_CLEARED | ModelChange.GAME_OVER));
+    }
+
+    @Test
+    public void batchedMovesNotifyOnceTest(){
+        int[] seen = new int[2];
+        model.addListener(new ModelListener() {
+            @Override
+            public void onChange(TetrisModel tetrisModel, int changes) {
+                seen[0]++;
+                seen[1] = changes;
+            }
+
+            @Override
+            public void over(TetrisModel tetrisModel) {
+
+            }
+        });
+        model.beginBatch();
+        model.moveLeft();
+        model.moveRight();
+        model.levelUp();
+        assertEquals(0, seen[0]);
+        model.endBatch();
+        assertEquals(1, seen[0]);
+        assertEquals(ModelChange.PIECE_MOVED | ModelChange.LEVEL, seen[1]);
+    }
+
     @Test
     public void removeListenerTest(){
         ModelListener modelListener = new ModelListener() {
@@ -163,8 +236,12 @@ public class TetrisModelTest {
 
     @Test
     public void infiniteTest(){
+        Pair old = model.position;
+        model.infinite();
+        assertEquals(new Pair(old.x(), old.y() + 1), model.position);
+        model.pause();
         model.infinite();
-        assertFalse(model.FirstTry);
+        assertEquals(new Pair(old.x(), old.y() + 1), model.position);
     }
 
     @Test
@@ -175,6 +252,18 @@ public class TetrisModelTest {
         assertEquals(100, model.level);
     }
 
+    @Test
+    public void gravitySettingOverridesLevelTest(){
+        assertEquals(model.level * 1_000_000L, model.gravityNanos());
+        model.setGravityNanos(100_000);
+        model.levelUp();
+        model.reset();
+        assertEquals(100_000, model.gravityNanos());
+        model.setGravityNanos(0);
+        assertEquals(model.level * 1_000_000L, model.gravityNanos());
+        assertThrows(IllegalArgumentException.class, () -> model.setGravityNanos(-1));
+    }
+
     @Test
     public void levelDownTest(){
         model.levelDown();
@@ -195,8 +284,7 @@ public class TetrisModelTest {
         model.levelDown();
         model.score += 100;
         model.reset();
-        assertEquals(model.field.length, TetrisModel.DEFAULT_HEIGHT);
-        assertEquals(model.field[0].length, TetrisModel.DEFAULT_WIDTH);
+        assertEquals(new Pair(TetrisModel.DEFAULT_WIDTH, TetrisModel.DEFAULT_HEIGHT), model.size());
         assertFalse(model.finished);
         assertEquals(0, model.score);
     }
@@ -229,35 +317,39 @@ public class TetrisModelTest {
     }
 
     @Test
-    public void shiftRowsDownTest(){
-        int[][] field =new int[][] {
-            {0, 0, 0, 0},
-            {1, 1, 1, 1},
-            {0, 0, 0, 0},
-            {0, 0, 0, 0}
-        };
-        field = model.shiftRowsDown(field);
-
-        int[][] newField =new int[][] {
-                {0, 0, 0, 0},
-                {0, 0, 0, 0},
-                {0, 0, 0, 0},
-                {1, 1, 1, 1}
-        };
-        Arrays.equals(field, newField);
+    public void clearFullRowsTest(){
+        int bottom = TetrisModel.DEFAULT_HEIGHT - 1;
+        for(int i = 0; i < TetrisModel.DEFAULT_WIDTH; i++) {
+            model.setCell(bottom, i, 1);
+            model.setCell(bottom - 2, i, 3);
+        }
+        model.setCell(bottom - 1, 4, 2);
+        model.setCell(bottom - 3, 7, 5);
+
+        assertEquals(2, model.clearFullRows());
+        assertEquals(bottom, model.clearedRows[0]);
+        assertEquals(bottom - 2, model.clearedRows[1]);
+        assertEquals(2, model.cell(bottom, 4));
+        assertEquals(5, model.cell(bottom - 1, 7));
+        assertTrue(model.isRowFullOfZeros(bottom - 2));
+        assertTrue(model.isRowFullOfZeros(0));
+        assertFalse(model.checkAbsPos(4, bottom));
+        assertTrue(model.checkAbsPos(4, bottom - 1));
     }
 
     @Test
-    public void deleteFullRowsTest(){
-        for(int i = 0; i < model.field[0].length; i++) model.field[0][i] = 1;
-        int[][] result = new int[20][10];
-        model.deleteFullRows();
-        Arrays.equals(result, model.field);
+    public void clearFullRowsKeepsGapsTest(){
+        int bottom = TetrisModel.DEFAULT_HEIGHT - 1;
+        model.setCell(bottom - 5, 0, 1);
+
+        assertEquals(0, model.clearFullRows());
+        assertEquals(1, model.cell(bottom - 5, 0));
+        assertTrue(model.isRowFullOfZeros(bottom));
     }
 
     @Test
     public void checkAbsPositionTest(){
-        model.field[10][9] = 1;
+        model.setCell(10, 9, 1);
         assertFalse(model.checkAbsPos(new Pair(10, 0)));
         assertFalse(model.checkAbsPos(new Pair(0, 20)));
         assertFalse(model.checkAbsPos(new Pair(-1, 0)));
@@ -268,7 +360,7 @@ public class TetrisModelTest {
 
    @Test
    public void isRowFullOffOnesTest(){
-       Arrays.fill(model.field[0], 1);
+       for(int i = 0; i < TetrisModel.DEFAULT_WIDTH; i++) model.setCell(0, i, 1);
        assertTrue(model.isRowFullOfOnes(0));
        assertFalse(model.isRowFullOfOnes(10));
    }
@@ -276,7 +368,7 @@ public class TetrisModelTest {
    @Test
     public void isRowFullOfZerosTest(){
         assertTrue(model.isRowFullOfZeros(0));
-        model.field[0][0] = 1;
+        model.setCell(0, 0, 1);
         assertFalse(model.isRowFullOfZeros(0));
    }
 